@@ -0,0 +1,77 @@
+package com.gym.apigateway.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The gateway is the edge, so forwarding headers sent by callers are not trusted: Forwarded and X-Forwarded-* are
+ * dropped and X-Forwarded-For is set to the connection's peer address. The services behind it throttle and log by
+ * that address (gym-service only reads it when the direct peer is the gateway).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ClientAddressFilter extends OncePerRequestFilter {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(new ClientAddressRequest(request), response);
+    }
+
+    private static boolean isForwardingHeader(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.equals("forwarded") || lower.startsWith("x-forwarded-");
+    }
+
+    private static final class ClientAddressRequest extends HttpServletRequestWrapper {
+
+        private ClientAddressRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (X_FORWARDED_FOR.equalsIgnoreCase(name)) {
+                return getRemoteAddr();
+            }
+            return isForwardingHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (X_FORWARDED_FOR.equalsIgnoreCase(name)) {
+                return Collections.enumeration(List.of(getRemoteAddr()));
+            }
+            return isForwardingHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (String name : Collections.list(super.getHeaderNames())) {
+                if (!isForwardingHeader(name)) {
+                    names.add(name);
+                }
+            }
+            names.add(X_FORWARDED_FOR);
+            return Collections.enumeration(names);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.gym.crm.service.LoginAttemptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,6 +15,9 @@ public class AuthenticationFailureListener
     private LoginAttemptService loginAttemptService;
 
     public void onApplicationEvent(AuthenticationFailureBadCredentialsEvent e) {
-        loginAttemptService.loginFailed(e.getAuthentication().getName());
+        String clientIp = e.getAuthentication().getDetails() instanceof WebAuthenticationDetails details
+                ? details.getRemoteAddress()
+                : null;
+        loginAttemptService.loginFailed(e.getAuthentication().getName(), clientIp);
     }
-}
\ No newline at end of file
+}
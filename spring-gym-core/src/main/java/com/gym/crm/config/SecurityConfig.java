@@ -1,15 +1,24 @@
 package com.gym.crm.config;
 
-import com.gym.crm.dao.TraineeDAO;
-import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dao.UserDAO;
+import com.gym.crm.security.BCryptStrengthCalibrator;
+import com.gym.crm.security.BoundedPasswordEncoder;
 import com.gym.crm.security.JwtRequestFilter;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,7 +30,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; 
-import org.springframework.security.crypto.password.PasswordEncoder;   
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -33,40 +42,57 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 @EnableWebSecurity 
 public class SecurityConfig {
 
-    private final TraineeDAO traineeDAO;
-    private final TrainerDAO trainerDAO;
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private final UserDAO userDAO;
     private final JwtRequestFilter jwtRequestFilter;
 
-    public SecurityConfig(TraineeDAO traineeDAO, TrainerDAO trainerDAO, JwtRequestFilter jwtRequestFilter) {
-        this.traineeDAO = traineeDAO;
-        this.trainerDAO = trainerDAO;
+    public SecurityConfig(UserDAO userDAO, JwtRequestFilter jwtRequestFilter) {
+        this.userDAO = userDAO;
         this.jwtRequestFilter = jwtRequestFilter;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); 
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password-hashing.threads}") int threads,
+                                           @Value("${security.password-hashing.queue-capacity}") int queueCapacity,
+                                           @Value("${security.password-hashing.bulk-threads}") int bulkThreads,
+                                           @Value("${security.password-hashing.strength}") int fixedStrength,
+                                           @Value("${security.password-hashing.target-millis}") long targetMillis,
+                                           @Value("${security.password-hashing.min-strength}") int minStrength,
+                                           @Value("${security.password-hashing.max-strength}") int maxStrength,
+                                           MeterRegistry meterRegistry) {
+        int strength = fixedStrength > 0
+                ? fixedStrength
+                : BCryptStrengthCalibrator.calibrate(Duration.ofMillis(targetMillis), minStrength, maxStrength);
+        Gauge.builder("crm.password.hashing.strength", () -> strength)
+                .description("BCrypt work factor used for new password hashes")
+                .register(meterRegistry);
+
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt and get upgraded on next login.
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int bulkPoolSize = bulkThreads > 0 ? bulkThreads : Math.max(1, poolSize / 2);
+        return new BoundedPasswordEncoder(delegatingEncoder, poolSize, queueCapacity, bulkPoolSize, meterRegistry);
     }
 
+    /**
+     * Users get the role of their profile type; the operators listed in {@code security.admin-usernames}
+     * also get {@code ADMIN}, which actuator write operations and bulk registrations require.
+     */
     @Bean
-    public UserDetailsService userDetailsService() {
-        return username -> {
-            return traineeDAO.findByUsername(username)
-                    .<UserDetails>map(trainee -> User.builder()
-                            .username(trainee.getUsername())
-                            .password(trainee.getPassword())
-                            .roles("TRAINEE") 
-                            .build())
-                    .orElseGet(() ->
-                        trainerDAO.findByUsername(username)
-                                .<UserDetails>map(trainer -> User.builder()
-                                        .username(trainer.getUsername())
-                                        .password(trainer.getPassword())
-                                        .roles("TRAINER") 
-                                        .build())
-                                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username))
-                    );
-        };
+    public UserDetailsService userDetailsService(@Value("${security.admin-usernames}") Set<String> adminUsernames) {
+        return username -> userDAO.findCredentialsByUsername(username)
+                .map(credentials -> User.builder()
+                        .username(credentials.getUsername())
+                        .password(credentials.getPassword())
+                        .roles(adminUsernames.contains(credentials.getUsername())
+                                ? new String[]{credentials.getRole(), ADMIN_ROLE}
+                                : new String[]{credentials.getRole()})
+                        .build())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
     @Bean
@@ -81,6 +107,14 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             
             .authorizeHttpRequests(authz -> authz
+                // Streamed responses (bulk registration, exports) finish on an async dispatch that the JWT filter
+                // skips; the request itself was authorized when it arrived
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Actuator reads are open; write operations such as the training type refresh are for admins only
+                .requestMatchers(HttpMethod.POST, "/actuator/**").hasRole(ADMIN_ROLE)
+                // Bulk imports create any number of accounts and return their plaintext passwords
+                .requestMatchers(HttpMethod.POST, "/api/trainees/register/bulk", "/api/trainers/register/bulk")
+                        .hasRole(ADMIN_ROLE)
                 .requestMatchers(
                                  "/",
                                  "/api/auth/**", 
@@ -7,9 +7,10 @@ import com.gym.crm.exception.AuthenticationFailedException;
 import com.gym.crm.security.JwtUtil;
 import com.gym.crm.service.LoginAttemptService;
 import com.gym.crm.service.TokenBlacklistService;
-import com.gym.crm.service.TraineeService;
-import com.gym.crm.service.TrainerService;
+import com.gym.crm.service.UserService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -21,8 +22,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -30,26 +32,36 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Authentication Controller", description = "Endpoints for user login and password changes (Tasks 3 & 4)")
 public class LoginController {
 
-    private final TraineeService traineeService;
-    private final TrainerService trainerService;
+    private final UserService userService;
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final LoginAttemptService loginAttemptService;
     private final TokenBlacklistService tokenBlacklistService;
 
-    public LoginController(TraineeService traineeService, TrainerService trainerService,
-                           AuthenticationManager authenticationManager, UserDetailsService userDetailsService,
+    private final Counter loginSuccessCounter;
+    private final Counter loginFailureCounter;
+    private final Counter loginBlockedCounter;
+
+    public LoginController(UserService userService, AuthenticationManager authenticationManager,
                            JwtUtil jwtUtil, LoginAttemptService loginAttemptService,
-                           TokenBlacklistService tokenBlacklistService) {
-        this.traineeService = traineeService;
-        this.trainerService = trainerService;
+                           TokenBlacklistService tokenBlacklistService, MeterRegistry meterRegistry) {
+        this.userService = userService;
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.loginAttemptService = loginAttemptService;
         this.tokenBlacklistService = tokenBlacklistService;
+
+        this.loginSuccessCounter = loginCounter(meterRegistry, "success");
+        this.loginFailureCounter = loginCounter(meterRegistry, "failure");
+        this.loginBlockedCounter = loginCounter(meterRegistry, "blocked");
+    }
+
+    private static Counter loginCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("crm.auth.logins.total")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @PostMapping("/login")
@@ -57,23 +69,38 @@ public class LoginController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful, token returned"),
             @ApiResponse(responseCode = "400", description = "Invalid request body"),
-            @ApiResponse(responseCode = "401", description = "Invalid username or password")
+            @ApiResponse(responseCode = "401", description = "Invalid username or password"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent logins, retry later")
     })
-    public ResponseEntity<AuthenticationResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public ResponseEntity<AuthenticationResponseDto> login(@Valid @RequestBody LoginRequestDto loginRequest,
+                                                           HttpServletRequest request) {
 
+        // The remote address is the client's, not the gateway's: server.forward-headers-strategy resolves it
+        // from X-Forwarded-For when the request comes through an internal proxy
+        if (loginAttemptService.isIpBlocked(request.getRemoteAddr())) {
+            loginBlockedCounter.increment();
+            throw new AuthenticationFailedException("Too many failed login attempts from this address. Try again in 5 minutes.");
+        }
         if (loginAttemptService.isBlocked(loginRequest.getUsername())) {
+            loginBlockedCounter.increment();
             throw new AuthenticationFailedException("User is blocked for 5 minutes due to too many failed login attempts.");
         }
 
+        UsernamePasswordAuthenticationToken authRequest =
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword());
+        authRequest.setDetails(new WebAuthenticationDetails(request));
+
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-            );
+            authentication = authenticationManager.authenticate(authRequest);
         } catch (BadCredentialsException e) {
+            loginFailureCounter.increment();
             throw new AuthenticationFailedException("Invalid username or password");
         }
+        loginSuccessCounter.increment();
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
+        // The provider already loaded the user while authenticating; reuse it instead of a second lookup.
+        final UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
         final String token = jwtUtil.generateToken(userDetails);
 
@@ -91,14 +118,8 @@ public class LoginController {
             @Parameter(description = "Username of the user") @PathVariable String username,
             @Valid @RequestBody UpdatePasswordRequestDto requestDto) {
         
-        boolean traineePassChanged = traineeService.changeTraineePassword(username, requestDto.getOldPassword(), requestDto.getNewPassword());
-        
-        if (!traineePassChanged) {
-            boolean trainerPassChanged = trainerService.changeTrainerPassword(username, requestDto.getOldPassword(), requestDto.getNewPassword());
-            
-            if (!trainerPassChanged) {
-                throw new AuthenticationFailedException("Invalid username or old password");
-            }
+        if (!userService.changePassword(username, requestDto.getOldPassword(), requestDto.getNewPassword())) {
+            throw new AuthenticationFailedException("Invalid username or old password");
         }
         
         return ResponseEntity.ok().build();
@@ -1,5 +1,6 @@
 package com.gym.crm.controller;
 
+import com.gym.crm.dto.CursorPageDto;
 import com.gym.crm.dto.auth.CredentialsDto;
 import com.gym.crm.dto.trainee.TraineeProfileResponseDto;
 import com.gym.crm.dto.trainee.TraineeRegistrationRequestDto;
@@ -11,7 +12,10 @@ import com.gym.crm.exception.EntityNotFoundException;
 import com.gym.crm.mapper.TraineeMapper;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
+import com.gym.crm.service.ExportFormat;
+import com.gym.crm.service.RegistrationImportService;
 import com.gym.crm.service.TraineeService;
+import com.gym.crm.service.TrainingExportService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -21,12 +25,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,21 +49,34 @@ public class TraineeController {
 
     private final TraineeService traineeService;
     private final TraineeMapper traineeMapper;
+    private final TrainingExportService trainingExportService;
+    private final RegistrationImportService registrationImportService;
+    private final Duration exportTimeout;
+    private final Duration importTimeout;
 
-    public TraineeController(TraineeService traineeService, TraineeMapper traineeMapper) {
+    public TraineeController(TraineeService traineeService, TraineeMapper traineeMapper,
+                             TrainingExportService trainingExportService,
+                             RegistrationImportService registrationImportService,
+                             @Value("${training.export.timeout}") Duration exportTimeout,
+                             @Value("${registration.import.timeout}") Duration importTimeout) {
         this.traineeService = traineeService;
         this.traineeMapper = traineeMapper;
+        this.trainingExportService = trainingExportService;
+        this.registrationImportService = registrationImportService;
+        this.exportTimeout = exportTimeout;
+        this.importTimeout = importTimeout;
     }
 
-    @Operation(summary = "Get a list of all trainees")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+    @Operation(summary = "Get a page of trainees", description = "Keyset-paginated; pass the returned nextCursor to fetch the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
     @GetMapping
-    public ResponseEntity<List<TraineeProfileResponseDto>> getAllTrainees() {
-        List<Trainee> trainees = traineeService.findAllTrainees();
-        List<TraineeProfileResponseDto> responseDtos = trainees.stream()
-                .map(traineeMapper::toTraineeProfileResponseDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responseDtos);
+    public ResponseEntity<CursorPageDto<TraineeProfileResponseDto>> getAllTrainees(
+            @Parameter(description = "Cursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(traineeService.getTraineeProfilesPage(cursor, size));
     }
 
     @Operation(summary = "Register a new trainee (Task 1)", description = "Creates a new trainee profile and returns their generated username and password.")
@@ -73,19 +97,40 @@ public class TraineeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(credentials);
     }
 
-    @Operation(summary = "Get trainee profile by username (Task 5)")
+    @Operation(summary = "Register many trainees from a stream",
+            description = "Body is NDJSON (or a JSON array) of trainee registration requests. The response streams one NDJSON line " +
+                    "per entry, by index: the generated username and password, or the reason the entry was rejected. " +
+                    "Requires the ADMIN role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import streamed; see per-entry lines"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    })
+    @PostMapping(value = "/register/bulk", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public WebAsyncTask<Void> registerTraineesInBulk(InputStream body, HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(importTimeout.toMillis(), () -> {
+            registrationImportService.importTrainees(body, response.getOutputStream());
+            return null;
+        });
+    }
+
+    @Operation(summary = "Get trainee profile by username (Task 5)",
+               description = "Profile columns take one SQL statement; listing trainers in fields adds one more for the trainer list.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the trainee",
                          content = { @Content(mediaType = "application/json",
                          schema = @Schema(implementation = TraineeProfileResponseDto.class)) }),
+            @ApiResponse(responseCode = "400", description = "Unknown field"),
             @ApiResponse(responseCode = "404", description = "Trainee not found")
     })
     @GetMapping("/{username}")
     public ResponseEntity<TraineeProfileResponseDto> getTraineeProfile(
-            @Parameter(description = "Username of the trainee to be fetched") @PathVariable String username) {
-        Trainee trainee = traineeService.selectTraineeProfileByUsername(username)
+            @Parameter(description = "Username of the trainee to be fetched") @PathVariable String username,
+            @Parameter(description = "Associations to include (supported: trainers); omit for all, leave empty for none")
+            @RequestParam(required = false) List<String> fields) {
+        return traineeService.getTraineeProfile(username, fields)
+                .map(ResponseEntity::ok)
                 .orElseThrow(() -> new EntityNotFoundException("Trainee not found with username: " + username));
-        return ResponseEntity.ok(traineeMapper.toTraineeProfileResponseDto(trainee));
     }
 
     @Operation(summary = "Update trainee profile (Task 6)")
@@ -124,27 +169,18 @@ public class TraineeController {
 
     @Operation(summary = "Get not assigned on trainee active trainers (Task 10)")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "404", description = "Trainee not found")
     })
     @GetMapping("/{username}/trainers/unassigned")
-    public ResponseEntity<List<TrainerInfoDto>> getUnassignedTrainers(
-            @Parameter(description = "Username of the trainee") @PathVariable String username) {
-         traineeService.selectTraineeProfileByUsername(username)
-                 .orElseThrow(() -> new EntityNotFoundException("Trainee not found with username: " + username));
-
-        List<Trainer> trainers = traineeService.getUnassignedTrainersForTrainee(username);
-        List<TrainerInfoDto> response = trainers.stream().map(t -> {
-            TrainerInfoDto dto = new TrainerInfoDto();
-            dto.setUsername(t.getUsername());
-            dto.setFirstName(t.getFirstName());
-            dto.setLastName(t.getLastName());
-            if (t.getSpecialization() != null) {
-                dto.setSpecialization(t.getSpecialization().getTrainingTypeName());
-            }
-            return dto;
-        }).collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<CursorPageDto<TrainerInfoDto>> getUnassignedTrainers(
+            @Parameter(description = "Username of the trainee") @PathVariable String username,
+            @Parameter(description = "Cursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        return traineeService.getUnassignedTrainersPage(username, cursor, size)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new EntityNotFoundException("Trainee not found with username: " + username));
     }
 
     @Operation(summary = "Update Trainee's Trainer List (Task 11)")
@@ -186,25 +222,54 @@ public class TraineeController {
             @Parameter(description = "Filter from date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @Parameter(description = "Filter to date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @Parameter(description = "Filter by trainer's name") @RequestParam(required = false) String trainerName,
-            @Parameter(description = "Filter by training type name") @RequestParam(required = false) String trainingType) {
+            @Parameter(description = "Filter by training type name") @RequestParam(required = false) String trainingType,
+            @Parameter(description = "Maximum number of trainings to return, newest first") @RequestParam(required = false) Integer limit) {
 
         traineeService.selectTraineeProfileByUsername(username)
                  .orElseThrow(() -> new EntityNotFoundException("Trainee not found with username: " + username));
 
-        List<Object[]> results = traineeService.getTraineeTrainingsList(username, fromDate, toDate, trainerName, trainingType);
-
-        List<TraineeTrainingResponseDto> response = results.stream()
+        List<TraineeTrainingResponseDto> response = traineeService.getTraineeTrainingsList(username, fromDate, toDate, trainerName, trainingType, limit).stream()
                 .map(r -> new TraineeTrainingResponseDto(
-                        (String)r[0],      
-                        (LocalDate)r[1],   
-                        (String)r[2],      
-                        (Integer)r[3],     
-                        (String)r[4]       
+                        r.trainingName(),
+                        r.trainingDate(),
+                        r.trainingType(),
+                        r.trainingDuration(),
+                        r.partnerUsername()
                 ))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Export trainee trainings", description = "Streams the full training history as NDJSON or CSV, newest first, without loading it into memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @ApiResponse(responseCode = "404", description = "Trainee not found")
+    })
+    @GetMapping("/{username}/trainings/export")
+    public WebAsyncTask<Void> exportTraineeTrainings(
+            @Parameter(description = "Username of the trainee") @PathVariable String username,
+            @Parameter(description = "Filter from date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Filter to date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Filter by trainer's name") @RequestParam(required = false) String trainerName,
+            @Parameter(description = "Filter by training type name") @RequestParam(required = false) String trainingType,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+
+        traineeService.selectTraineeProfileByUsername(username)
+                 .orElseThrow(() -> new EntityNotFoundException("Trainee not found with username: " + username));
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + username + "-trainings." + exportFormat.getFileExtension() + "\"");
+        // Large exports outlive the default async request timeout, so they carry their own
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            trainingExportService.exportTraineeTrainings(username, fromDate, toDate, trainerName, trainingType, exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+
     @Operation(summary = "Activate or deactivate a trainee (Task 15)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Trainee status updated"),
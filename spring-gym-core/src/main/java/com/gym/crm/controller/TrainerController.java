@@ -1,6 +1,8 @@
 package com.gym.crm.controller;
 
+import com.gym.crm.dto.CursorPageDto;
 import com.gym.crm.dto.auth.CredentialsDto;
+import com.gym.crm.dto.trainer.FutureTrainingsCancellationDto;
 import com.gym.crm.dto.trainer.TrainerProfileResponseDto;
 import com.gym.crm.dto.trainer.TrainerRegistrationRequestDto;
 import com.gym.crm.dto.trainer.TrainerTrainingResponseDto;
@@ -9,7 +11,11 @@ import com.gym.crm.exception.EntityNotFoundException;
 import com.gym.crm.mapper.TrainerMapper;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.TrainingType;
+import com.gym.crm.service.ExportFormat;
+import com.gym.crm.service.RegistrationImportService;
 import com.gym.crm.service.TrainerService;
+import com.gym.crm.service.TrainingExportService;
+import com.gym.crm.service.TrainingService;
 import com.gym.crm.service.TrainingTypeService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,12 +26,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -38,13 +51,40 @@ public class TrainerController {
     private final TrainerService trainerService;
     private final TrainingTypeService trainingTypeService;
     private final TrainerMapper trainerMapper;
+    private final TrainingExportService trainingExportService;
+    private final RegistrationImportService registrationImportService;
+    private final TrainingService trainingService;
+    private final Duration exportTimeout;
+    private final Duration importTimeout;
 
     public TrainerController(TrainerService trainerService,
                              TrainingTypeService trainingTypeService,
-                             TrainerMapper trainerMapper) {
+                             TrainerMapper trainerMapper,
+                             TrainingExportService trainingExportService,
+                             RegistrationImportService registrationImportService,
+                             TrainingService trainingService,
+                             @Value("${training.export.timeout}") Duration exportTimeout,
+                             @Value("${registration.import.timeout}") Duration importTimeout) {
         this.trainerService = trainerService;
         this.trainingTypeService = trainingTypeService;
         this.trainerMapper = trainerMapper;
+        this.trainingExportService = trainingExportService;
+        this.registrationImportService = registrationImportService;
+        this.trainingService = trainingService;
+        this.exportTimeout = exportTimeout;
+        this.importTimeout = importTimeout;
+    }
+
+    @Operation(summary = "Get a page of trainers", description = "Keyset-paginated; pass the returned nextCursor to fetch the following page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping
+    public ResponseEntity<CursorPageDto<TrainerProfileResponseDto>> getAllTrainers(
+            @Parameter(description = "Cursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(trainerService.getTrainerProfilesPage(cursor, size));
     }
 
     @Operation(summary = "Register a new trainer (Task 2)", description = "Creates a new trainer profile and returns their generated username and password.")
@@ -69,19 +109,40 @@ public class TrainerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(credentials);
     }
 
-    @Operation(summary = "Get trainer profile by username (Task 8)")
+    @Operation(summary = "Register many trainers from a stream",
+            description = "Body is NDJSON (or a JSON array) of trainer registration requests. The response streams one NDJSON line " +
+                    "per entry, by index: the generated username and password, or the reason the entry was rejected. " +
+                    "Requires the ADMIN role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import streamed; see per-entry lines"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    })
+    @PostMapping(value = "/register/bulk", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public WebAsyncTask<Void> registerTrainersInBulk(InputStream body, HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(importTimeout.toMillis(), () -> {
+            registrationImportService.importTrainers(body, response.getOutputStream());
+            return null;
+        });
+    }
+
+    @Operation(summary = "Get trainer profile by username (Task 8)",
+               description = "Profile columns and specialization take one SQL statement; listing trainees in fields adds one more for the trainee list.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found the trainer",
                          content = { @Content(mediaType = "application/json",
                          schema = @Schema(implementation = TrainerProfileResponseDto.class)) }),
+            @ApiResponse(responseCode = "400", description = "Unknown field"),
             @ApiResponse(responseCode = "404", description = "Trainer not found")
     })
     @GetMapping("/{username}")
     public ResponseEntity<TrainerProfileResponseDto> getTrainerProfile(
-            @Parameter(description = "Username of the trainer to be fetched") @PathVariable String username) {
-        Trainer trainer = trainerService.selectTrainerProfileByUsername(username)
+            @Parameter(description = "Username of the trainer to be fetched") @PathVariable String username,
+            @Parameter(description = "Associations to include (supported: trainees); omit for all, leave empty for none")
+            @RequestParam(required = false) List<String> fields) {
+        return trainerService.getTrainerProfile(username, fields)
+                .map(ResponseEntity::ok)
                 .orElseThrow(() -> new EntityNotFoundException("Trainer not found with username: " + username));
-        return ResponseEntity.ok(trainerMapper.toTrainerProfileResponseDto(trainer));
     }
 
     @Operation(summary = "Update trainer profile (Task 9)", description = "Updates trainer details. Note: Specialization is read-only and not updated via this endpoint.")
@@ -118,26 +179,68 @@ public class TrainerController {
             @Parameter(description = "Username of the trainer") @PathVariable String username,
             @Parameter(description = "Filter from date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @Parameter(description = "Filter to date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
-            @Parameter(description = "Filter by trainee's name") @RequestParam(required = false) String traineeName) { 
+            @Parameter(description = "Filter by trainee's name") @RequestParam(required = false) String traineeName,
+            @Parameter(description = "Maximum number of trainings to return, newest first") @RequestParam(required = false) Integer limit) { 
 
         trainerService.selectTrainerProfileByUsername(username)
                  .orElseThrow(() -> new EntityNotFoundException("Trainer not found with username: " + username));
 
-        List<Object[]> results = trainerService.getTrainerTrainingsList(username, fromDate, toDate, traineeName);
-
-        List<TrainerTrainingResponseDto> response = results.stream()
+        List<TrainerTrainingResponseDto> response = trainerService.getTrainerTrainingsList(username, fromDate, toDate, traineeName, limit).stream()
                 .map(r -> new TrainerTrainingResponseDto(
-                        (String)r[0],     
-                        (LocalDate)r[1],  
-                        (String)r[2],     
-                        (Integer)r[3],    
-                        (String)r[4]      
+                        r.trainingName(),
+                        r.trainingDate(),
+                        r.trainingType(),
+                        r.trainingDuration(),
+                        r.partnerUsername()
                 ))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Export trainer trainings", description = "Streams the full training history as NDJSON or CSV, newest first, without loading it into memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @ApiResponse(responseCode = "404", description = "Trainer not found")
+    })
+    @GetMapping("/{username}/trainings/export")
+    public WebAsyncTask<Void> exportTrainerTrainings(
+            @Parameter(description = "Username of the trainer") @PathVariable String username,
+            @Parameter(description = "Filter from date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Filter to date (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @Parameter(description = "Filter by trainee's name") @RequestParam(required = false) String traineeName,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+
+        trainerService.selectTrainerProfileByUsername(username)
+                 .orElseThrow(() -> new EntityNotFoundException("Trainer not found with username: " + username));
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + username + "-trainings." + exportFormat.getFileExtension() + "\"");
+        // Large exports outlive the default async request timeout, so they carry their own
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            trainingExportService.exportTrainerTrainings(username, fromDate, toDate, traineeName, exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+
+    @Operation(summary = "Cancel a trainer's future trainings",
+            description = "Deletes every training after today in one statement and sends one workload DELETE per month.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Future trainings cancelled"),
+            @ApiResponse(responseCode = "404", description = "Trainer not found")
+    })
+    @DeleteMapping("/{username}/trainings/future")
+    public ResponseEntity<FutureTrainingsCancellationDto> cancelFutureTrainings(
+            @Parameter(description = "Username of the trainer") @PathVariable String username) {
+        FutureTrainingsCancellationDto result = trainingService.cancelFutureTrainings(username)
+                .orElseThrow(() -> new EntityNotFoundException("Trainer not found with username: " + username));
+        return ResponseEntity.ok(result);
+    }
+
     @Operation(summary = "Activate or deactivate a trainer (Task 16)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Trainer status updated"),
@@ -1,6 +1,8 @@
 package com.gym.crm.controller;
 
 import com.gym.crm.dto.training.AddTrainingRequestDto;
+import com.gym.crm.dto.training.BatchTrainingRequestDto;
+import com.gym.crm.dto.training.BatchTrainingResponseDto;
 import com.gym.crm.exception.EntityNotFoundException;
 import com.gym.crm.model.Training;
 import com.gym.crm.model.TrainingType;
@@ -60,4 +62,16 @@ public class TrainingController {
             throw new EntityNotFoundException("Trainee or Trainer not found.");
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch")
+    @Operation(summary = "Add many trainings in one request",
+            description = "Creates up to " + BatchTrainingRequestDto.MAX_TRAININGS + " trainings. Entries whose trainee, " +
+                    "trainer or training type does not exist are rejected individually; the result lists every entry by index.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-entry results"),
+            @ApiResponse(responseCode = "400", description = "Invalid request body (validation error)")
+    })
+    public ResponseEntity<BatchTrainingResponseDto> addTrainings(@Valid @RequestBody BatchTrainingRequestDto requestDto) {
+        return ResponseEntity.ok(trainingService.addTrainings(requestDto.getTrainings()));
+    }
+}
@@ -1,13 +1,26 @@
 package com.gym.crm.dao;
 
+import com.gym.crm.dto.trainee.TraineeProfileResponseDto;
+import com.gym.crm.dto.trainee.TrainerInfoDto;
 import com.gym.crm.model.Trainee;
+import com.gym.crm.model.User;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Repository
 public class TraineeDAO {
@@ -29,21 +42,151 @@ public class TraineeDAO {
         return Optional.ofNullable(trainee);
     }
 
+    /**
+     * Natural-id load: answered from the persistence context or the natural-id cache when possible,
+     * so repeated lookups of the same username within a request cost no extra SQL.
+     */
     public Optional<Trainee> findByUsername(String username) {
-        try {
-            Trainee trainee = entityManager.createQuery("SELECT t FROM Trainee t WHERE t.username = :username", Trainee.class)
-                    .setParameter("username", username)
-                    .getSingleResult();
-            return Optional.of(trainee);
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username)
+                .filter(Trainee.class::isInstance)
+                .map(Trainee.class::cast);
+    }
+
+    /**
+     * Id of the trainee with this username, without loading the entity.
+     */
+    public Optional<Long> findIdByUsername(String username) {
+        return entityManager.createQuery("SELECT t.id FROM Trainee t WHERE t.username = :username", Long.class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Uninitialized proxy for a trainee known to exist, to set a foreign key without reading the row.
+     */
+    public Trainee getReference(long id) {
+        return entityManager.getReference(Trainee.class, id);
+    }
+
+    /**
+     * The trainee with {@link Trainee#PROFILE_GRAPH} fetched in the same statement, for flows that map the full profile.
+     */
+    public Optional<Trainee> findProfileGraphByUsername(String username) {
+        return entityManager.createQuery("SELECT t FROM Trainee t WHERE t.username = :username", Trainee.class)
+                .setParameter("username", username)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Trainee.PROFILE_GRAPH))
+                .getResultStream()
+                .findFirst();
     }
 
     public List<Trainee> findAll() {
         return entityManager.createQuery("SELECT t FROM Trainee t", Trainee.class).getResultList();
     }
 
+    /**
+     * Ids of the given trainees in one statement, keyed by username; unknown usernames are absent.
+     */
+    public Map<String, Long> findIdsByUsernames(Collection<String> usernames) {
+        Map<String, Long> ids = new HashMap<>();
+        if (usernames.isEmpty()) {
+            return ids;
+        }
+        entityManager.createQuery("SELECT t.username, t.id FROM Trainee t WHERE t.username IN :usernames", Object[].class)
+                .setParameter("usernames", usernames)
+                .getResultList()
+                .forEach(row -> ids.put((String) row[0], (Long) row[1]));
+        return ids;
+    }
+
+    /**
+     * Ids of the trainers assigned to the trainee, read from the join table without loading the collection.
+     */
+    public Set<Long> findTrainerIds(long traineeId) {
+        return new HashSet<>(entityManager.createQuery(
+                        "SELECT a.id FROM Trainee t JOIN t.trainers a WHERE t.id = :traineeId", Long.class)
+                .setParameter("traineeId", traineeId)
+                .getResultList());
+    }
+
+    /**
+     * Keyset page: trainees with an id above {@code afterId}, in id order. Loaded read-only, without dirty-checking
+     * snapshots, also when the caller's session is not in a read-only transaction (open-in-view).
+     */
+    public List<Trainee> findPageAfter(long afterId, int limit) {
+        return entityManager.createQuery("SELECT t FROM Trainee t WHERE t.id > :afterId ORDER BY t.id", Trainee.class)
+                .setParameter("afterId", afterId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Assigned trainers of all given trainees as one projection query, keyed by trainee id.
+     */
+    public Map<Long, List<TrainerInfoDto>> findTrainerInfoByTraineeIds(Collection<Long> traineeIds) {
+        Map<Long, List<TrainerInfoDto>> trainersByTrainee = new HashMap<>();
+        if (traineeIds.isEmpty()) {
+            return trainersByTrainee;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT t.id, tr.username, tr.firstName, tr.lastName, s.trainingTypeName " +
+                                "FROM Trainee t JOIN t.trainers tr LEFT JOIN tr.specialization s " +
+                                "WHERE t.id IN :traineeIds ORDER BY tr.username", Object[].class)
+                .setParameter("traineeIds", traineeIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            trainersByTrainee.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(toTrainerInfoDto(row, 1));
+        }
+        return trainersByTrainee;
+    }
+
+    /**
+     * Profile columns of one trainee as a projection (no entity, no associations); {@code trainers} is left null.
+     */
+    public Optional<TraineeProfileResponseDto> findProfileByUsername(String username) {
+        return entityManager.createQuery(
+                        "SELECT t.firstName, t.lastName, t.dateOfBirth, t.address, t.isActive " +
+                                "FROM Trainee t WHERE t.username = :username", Object[].class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst()
+                .map(row -> {
+                    TraineeProfileResponseDto profile = new TraineeProfileResponseDto();
+                    profile.setFirstName((String) row[0]);
+                    profile.setLastName((String) row[1]);
+                    profile.setDateOfBirth((LocalDate) row[2]);
+                    profile.setAddress((String) row[3]);
+                    profile.setActive((Boolean) row[4]);
+                    return profile;
+                });
+    }
+
+    /**
+     * Same projection as {@link #findTrainerInfoByTraineeIds} for a single trainee, addressed by username.
+     */
+    public List<TrainerInfoDto> findTrainerInfoByTraineeUsername(String username) {
+        return entityManager.createQuery(
+                        "SELECT tr.username, tr.firstName, tr.lastName, s.trainingTypeName " +
+                                "FROM Trainee t JOIN t.trainers tr LEFT JOIN tr.specialization s " +
+                                "WHERE t.username = :username ORDER BY tr.username", Object[].class)
+                .setParameter("username", username)
+                .getResultStream()
+                .map(row -> toTrainerInfoDto(row, 0))
+                .collect(Collectors.toList());
+    }
+
+    private TrainerInfoDto toTrainerInfoDto(Object[] row, int offset) {
+        TrainerInfoDto trainerDto = new TrainerInfoDto();
+        trainerDto.setUsername((String) row[offset]);
+        trainerDto.setFirstName((String) row[offset + 1]);
+        trainerDto.setLastName((String) row[offset + 2]);
+        trainerDto.setSpecialization((String) row[offset + 3]);
+        return trainerDto;
+    }
+
     public void delete(Trainee trainee) {
         if (entityManager.contains(trainee)) {
             entityManager.remove(trainee);
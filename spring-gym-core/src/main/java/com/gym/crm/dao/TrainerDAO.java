@@ -1,13 +1,23 @@
 package com.gym.crm.dao;
 
+import com.gym.crm.dto.trainer.TraineeInfoDto;
+import com.gym.crm.dto.trainer.TrainerProfileResponseDto;
 import com.gym.crm.model.Trainer;
+import com.gym.crm.model.User;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public class TrainerDAO {
@@ -29,19 +39,199 @@ public class TrainerDAO {
         return Optional.ofNullable(trainer);
     }
 
+    /**
+     * Same natural-id load as {@link TraineeDAO#findByUsername}; a trainee's username resolves to empty.
+     */
     public Optional<Trainer> findByUsername(String username) {
-        try {
-            Trainer trainer = entityManager.createQuery("SELECT t FROM Trainer t WHERE t.username = :username", Trainer.class)
-                    .setParameter("username", username)
-                    .getSingleResult();
-            return Optional.of(trainer);
-        } catch (NoResultException e) {
-            return Optional.empty();
-        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username)
+                .filter(Trainer.class::isInstance)
+                .map(Trainer.class::cast);
+    }
+
+    /**
+     * Id, name and active flag of the trainer with this username, without loading the entity.
+     */
+    public Optional<TrainerSummary> findSummaryByUsername(String username) {
+        return entityManager.createQuery(
+                        "SELECT t.id, t.username, t.firstName, t.lastName, t.isActive FROM Trainer t " +
+                                "WHERE t.username = :username",
+                        Object[].class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst()
+                .map(row -> new TrainerSummary((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                        (Boolean) row[4]));
+    }
+
+    /**
+     * Uninitialized proxy for a trainer known to exist, to set a foreign key without reading the row.
+     */
+    public Trainer getReference(long id) {
+        return entityManager.getReference(Trainer.class, id);
     }
     
+    /**
+     * The trainer with {@link Trainer#PROFILE_GRAPH} fetched in the same statement, for flows that map the full profile.
+     */
+    public Optional<Trainer> findProfileGraphByUsername(String username) {
+        return entityManager.createQuery("SELECT t FROM Trainer t WHERE t.username = :username", Trainer.class)
+                .setParameter("username", username)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Trainer.PROFILE_GRAPH))
+                .getResultStream()
+                .findFirst();
+    }
+
     public List<Trainer> findAll() {
         return entityManager.createQuery("SELECT t FROM Trainer t", Trainer.class).getResultList();
     }
-    
-}
\ No newline at end of file
+
+    /**
+     * The given trainers with their specialization in one statement; unknown usernames are skipped.
+     */
+    public List<Trainer> findByUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT t FROM Trainer t LEFT JOIN FETCH t.specialization WHERE t.username IN :usernames",
+                        Trainer.class)
+                .setParameter("usernames", usernames)
+                .getResultList();
+    }
+
+    /**
+     * The given trainers, active or not, as read-only entities in one statement; unknown ids are skipped.
+     */
+    public List<Trainer> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT t FROM Trainer t WHERE t.id IN :ids", Trainer.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Read-only keyset page of trainers after {@code afterId}; the specialization is fetched in the same statement.
+     */
+    public List<Trainer> findPageAfter(long afterId, int limit) {
+        return entityManager.createQuery(
+                        "SELECT t FROM Trainer t LEFT JOIN FETCH t.specialization WHERE t.id > :afterId ORDER BY t.id",
+                        Trainer.class)
+                .setParameter("afterId", afterId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Ids of all active trainers in ascending order, for {@code ActiveTrainerIndex}.
+     */
+    public List<Long> findActiveIds() {
+        return entityManager.createQuery("SELECT t.id FROM Trainer t WHERE t.isActive = true ORDER BY t.id", Long.class)
+                .getResultList();
+    }
+
+    /**
+     * The given trainers that are still active, with their specialization, in id order. Loaded read-only, without
+     * dirty-checking snapshots, also when the caller's session is not in a read-only transaction (open-in-view).
+     */
+    public List<Trainer> findActiveByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT t FROM Trainer t LEFT JOIN FETCH t.specialization " +
+                                "WHERE t.isActive = true AND t.id IN :ids ORDER BY t.id",
+                        Trainer.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * Read-only keyset page of active trainers not assigned to the trainee, as one anti-join on {@code trainee_trainer}.
+     */
+    public List<Trainer> findUnassignedPageAfter(long traineeId, long afterId, int limit) {
+        return entityManager.createQuery(
+                        "SELECT t FROM Trainer t LEFT JOIN FETCH t.specialization " +
+                                "WHERE t.isActive = true AND t.id > :afterId AND NOT EXISTS (" +
+                                "SELECT 1 FROM Trainee tr JOIN tr.trainers a WHERE tr.id = :traineeId AND a.id = t.id) " +
+                                "ORDER BY t.id",
+                        Trainer.class)
+                .setParameter("traineeId", traineeId)
+                .setParameter("afterId", afterId)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    public Map<Long, List<TraineeInfoDto>> findTraineeInfoByTrainerIds(Collection<Long> trainerIds) {
+        Map<Long, List<TraineeInfoDto>> traineesByTrainer = new HashMap<>();
+        if (trainerIds.isEmpty()) {
+            return traineesByTrainer;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT tr.id, t.username, t.firstName, t.lastName " +
+                                "FROM Trainer tr JOIN tr.trainees t WHERE tr.id IN :trainerIds ORDER BY t.username",
+                        Object[].class)
+                .setParameter("trainerIds", trainerIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            traineesByTrainer.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(toTraineeInfoDto(row, 1));
+        }
+        return traineesByTrainer;
+    }
+
+    /**
+     * Profile columns of one trainer and its specialization name as a projection; {@code trainees} is left null.
+     */
+    public Optional<TrainerProfileResponseDto> findProfileByUsername(String username) {
+        return entityManager.createQuery(
+                        "SELECT t.firstName, t.lastName, t.isActive, s.trainingTypeName " +
+                                "FROM Trainer t LEFT JOIN t.specialization s WHERE t.username = :username",
+                        Object[].class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst()
+                .map(row -> {
+                    TrainerProfileResponseDto profile = new TrainerProfileResponseDto();
+                    profile.setFirstName((String) row[0]);
+                    profile.setLastName((String) row[1]);
+                    profile.setActive((Boolean) row[2]);
+                    profile.setSpecialization((String) row[3]);
+                    return profile;
+                });
+    }
+
+    /**
+     * Same projection as {@link #findTraineeInfoByTrainerIds} for a single trainer, addressed by username.
+     */
+    public List<TraineeInfoDto> findTraineeInfoByTrainerUsername(String username) {
+        return entityManager.createQuery(
+                        "SELECT t.username, t.firstName, t.lastName " +
+                                "FROM Trainer tr JOIN tr.trainees t WHERE tr.username = :username ORDER BY t.username",
+                        Object[].class)
+                .setParameter("username", username)
+                .getResultStream()
+                .map(row -> toTraineeInfoDto(row, 0))
+                .collect(Collectors.toList());
+    }
+
+    private TraineeInfoDto toTraineeInfoDto(Object[] row, int offset) {
+        TraineeInfoDto traineeDto = new TraineeInfoDto();
+        traineeDto.setUsername((String) row[offset]);
+        traineeDto.setFirstName((String) row[offset + 1]);
+        traineeDto.setLastName((String) row[offset + 2]);
+        return traineeDto;
+    }
+
+    /**
+     * The trainer columns a workload update carries, keyed by the trainer id.
+     */
+    public record TrainerSummary(long id, String username, String firstName, String lastName, boolean active) {
+    }
+}
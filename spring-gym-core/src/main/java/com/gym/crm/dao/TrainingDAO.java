@@ -1,18 +1,77 @@
 package com.gym.crm.dao;
 
+import com.gym.crm.dto.training.TrainingHistoryRecord;
 import com.gym.crm.model.Training;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class TrainingDAO {
 
+    private static final String HISTORY_PROJECTION =
+            "SELECT new com.gym.crm.dto.training.TrainingHistoryRecord(" +
+                    "t.trainingName, t.trainingDate, tt.trainingTypeName, t.trainingDuration, p.username) ";
+    private static final String HISTORY_ORDER = " ORDER BY t.trainingDate DESC, t.id DESC";
+
+    private static final int FROM_DATE = 1;
+    private static final int TO_DATE = 1 << 1;
+    private static final int PARTNER_NAME = 1 << 2;
+    private static final int TRAINING_TYPE = 1 << 3;
+
+    // Every filter combination maps to one of these fixed strings, so Hibernate's query plan cache
+    // holds at most 16 + 8 history plans instead of a new one per request shape.
+    private static final String[] TRAINEE_HISTORY_VARIANTS = buildVariants(
+            HISTORY_PROJECTION + "FROM Training t JOIN t.trainer p JOIN t.trainingType tt " +
+                    "WHERE t.trainee.username = :username",
+            " AND t.trainingDate >= :fromDate",
+            " AND t.trainingDate <= :toDate",
+            " AND (p.firstName = :partnerName OR p.lastName = :partnerName)",
+            " AND tt.trainingTypeName = :trainingType");
+
+    private static final String[] TRAINER_HISTORY_VARIANTS = buildVariants(
+            HISTORY_PROJECTION + "FROM Training t JOIN t.trainee p JOIN t.trainingType tt " +
+                    "WHERE t.trainer.username = :username",
+            " AND t.trainingDate >= :fromDate",
+            " AND t.trainingDate <= :toDate",
+            " AND (p.firstName = :partnerName OR p.lastName = :partnerName)");
+
+    private static final String INSERT_TRAINING =
+            "INSERT INTO trainings (id, trainee_id, trainer_id, training_type_id, training_name, training_date, " +
+                    "training_duration) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // The owner's index finds the rows and each is checked against one array parameter; a plain IN (?, ?, ...)
+    // list of thousands of ids is compared against every row of the table
+    private static final String DELETE_TRAINEE_TRAININGS = "DELETE FROM trainings WHERE trainee_id = ? AND id = ANY(?)";
+    private static final String DELETE_TRAINER_TRAININGS = "DELETE FROM trainings WHERE trainer_id = ? AND id = ANY(?)";
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${training.batch.jdbc-batch-size}")
+    private int jdbcBatchSize;
+
+    public TrainingDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
     public Training save(Training training) {
         if (training.getId() == null) {
             entityManager.persist(training);
@@ -26,4 +85,205 @@ public class TrainingDAO {
         Training training = entityManager.find(Training.class, id);
         return Optional.ofNullable(training);
     }
-}
\ No newline at end of file
+
+    /**
+     * Plain JDBC batch insert for imports: rows go out {@code training.batch.jdbc-batch-size} per round trip and
+     * never enter the persistence context. Callers resolve every foreign key beforehand. Ids come from
+     * {@link Training}'s own pooled generator, so a batch costs one sequence call per 50 rows and shares the
+     * blocks with entities persisted through Hibernate; the column default would burn a block per row.
+     */
+    public void insertAll(List<NewTraining> trainings) {
+        if (trainings.isEmpty()) {
+            return;
+        }
+        // Anything pending in the session has to reach the database before rows are written behind its back.
+        entityManager.flush();
+        Iterator<Long> ids = nextIds(trainings.size()).iterator();
+        jdbcTemplate.batchUpdate(INSERT_TRAINING, trainings, jdbcBatchSize, (ps, training) -> {
+            ps.setLong(1, ids.next());
+            ps.setLong(2, training.traineeId());
+            ps.setLong(3, training.trainerId());
+            ps.setLong(4, training.trainingTypeId());
+            ps.setString(5, training.trainingName());
+            ps.setDate(6, Date.valueOf(training.trainingDate()));
+            ps.setInt(7, training.trainingDuration());
+        });
+    }
+
+    private List<Long> nextIds(int count) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Training.class).getGenerator();
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(((Number) generator.generate(session, null)).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * The trainer's trainings after {@code date}, locked until the transaction ends (SELECT ... FOR UPDATE). A
+     * training added meanwhile is not among them, so deleting these ids (see {@link #deleteTrainerTrainings})
+     * removes exactly the rows the caller saw.
+     */
+    public List<LockedTraining> lockTrainerTrainingsAfter(long trainerId, LocalDate date) {
+        return locked(entityManager.createQuery(
+                        "SELECT t.id, t.trainer.id, t.trainingDate, t.trainingDuration FROM Training t " +
+                                "WHERE t.trainer.id = :trainerId AND t.trainingDate > :date ORDER BY t.id", Object[].class)
+                .setParameter("trainerId", trainerId)
+                .setParameter("date", date));
+    }
+
+    private static List<LockedTraining> locked(TypedQuery<Object[]> query) {
+        return query.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .map(row -> new LockedTraining((Long) row[0], (Long) row[1], (LocalDate) row[2], (Integer) row[3]))
+                .toList();
+    }
+
+    /**
+     * Deletes the given trainings of the trainer in one statement, bypassing the persistence context.
+     */
+    public int deleteTrainerTrainings(long trainerId, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        return jdbcTemplate.update(DELETE_TRAINER_TRAININGS, trainerId, ids.toArray(Long[]::new));
+    }
+
+    /**
+     * All of the trainee's trainings, locked like {@link #lockTrainerTrainingsAfter}.
+     */
+    public List<LockedTraining> lockTraineeTrainings(long traineeId) {
+        return locked(entityManager.createQuery(
+                        "SELECT t.id, t.trainer.id, t.trainingDate, t.trainingDuration FROM Training t " +
+                                "WHERE t.trainee.id = :traineeId ORDER BY t.id", Object[].class)
+                .setParameter("traineeId", traineeId));
+    }
+
+    /**
+     * Deletes the given trainings of the trainee in one statement, bypassing the persistence context.
+     */
+    public int deleteTraineeTrainings(long traineeId, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Anything pending in the session has to reach the database before rows are removed behind its back.
+        entityManager.flush();
+        return jdbcTemplate.update(DELETE_TRAINEE_TRAININGS, traineeId, ids.toArray(Long[]::new));
+    }
+
+    /**
+     * Trainings of a trainee, newest first. Null or empty filters are ignored; {@code limit} caps the rows when set.
+     */
+    public List<TrainingHistoryRecord> findTraineeHistory(String traineeUsername, LocalDate fromDate, LocalDate toDate,
+                                                          String trainerName, String trainingType, Integer limit) {
+        return traineeHistoryQuery(traineeUsername, fromDate, toDate, trainerName, trainingType, limit).getResultList();
+    }
+
+    /**
+     * Forward-only stream over a trainee's history for exports. Rows are read {@code fetchSize} at a time;
+     * the caller must consume and close the stream inside its transaction.
+     */
+    public Stream<TrainingHistoryRecord> streamTraineeHistory(String traineeUsername, LocalDate fromDate, LocalDate toDate,
+                                                              String trainerName, String trainingType, int fetchSize) {
+        return streaming(traineeHistoryQuery(traineeUsername, fromDate, toDate, trainerName, trainingType, null), fetchSize);
+    }
+
+    /**
+     * Trainings of a trainer, newest first, with the same filter and limit semantics as {@link #findTraineeHistory}.
+     */
+    public List<TrainingHistoryRecord> findTrainerHistory(String trainerUsername, LocalDate fromDate, LocalDate toDate,
+                                                          String traineeName, Integer limit) {
+        return trainerHistoryQuery(trainerUsername, fromDate, toDate, traineeName, limit).getResultList();
+    }
+
+    public Stream<TrainingHistoryRecord> streamTrainerHistory(String trainerUsername, LocalDate fromDate, LocalDate toDate,
+                                                              String traineeName, int fetchSize) {
+        return streaming(trainerHistoryQuery(trainerUsername, fromDate, toDate, traineeName, null), fetchSize);
+    }
+
+    static int historyVariantCount() {
+        return TRAINEE_HISTORY_VARIANTS.length + TRAINER_HISTORY_VARIANTS.length;
+    }
+
+    private TypedQuery<TrainingHistoryRecord> traineeHistoryQuery(String traineeUsername, LocalDate fromDate,
+                                                                  LocalDate toDate, String trainerName,
+                                                                  String trainingType, Integer limit) {
+        int filters = filterMask(fromDate, toDate, trainerName)
+                | (hasText(trainingType) ? TRAINING_TYPE : 0);
+        TypedQuery<TrainingHistoryRecord> query =
+                historyQuery(TRAINEE_HISTORY_VARIANTS[filters], filters, traineeUsername, fromDate, toDate, trainerName, limit);
+        if ((filters & TRAINING_TYPE) != 0) {
+            query.setParameter("trainingType", trainingType);
+        }
+        return query;
+    }
+
+    private TypedQuery<TrainingHistoryRecord> trainerHistoryQuery(String trainerUsername, LocalDate fromDate,
+                                                                  LocalDate toDate, String traineeName, Integer limit) {
+        int filters = filterMask(fromDate, toDate, traineeName);
+        return historyQuery(TRAINER_HISTORY_VARIANTS[filters], filters, trainerUsername, fromDate, toDate, traineeName, limit);
+    }
+
+    private static Stream<TrainingHistoryRecord> streaming(TypedQuery<TrainingHistoryRecord> query, int fetchSize) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private TypedQuery<TrainingHistoryRecord> historyQuery(String jpql, int filters, String username,
+                                                           LocalDate fromDate, LocalDate toDate,
+                                                           String partnerName, Integer limit) {
+        TypedQuery<TrainingHistoryRecord> query = entityManager.createQuery(jpql, TrainingHistoryRecord.class)
+                .setParameter("username", username);
+        if ((filters & FROM_DATE) != 0) {
+            query.setParameter("fromDate", fromDate);
+        }
+        if ((filters & TO_DATE) != 0) {
+            query.setParameter("toDate", toDate);
+        }
+        if ((filters & PARTNER_NAME) != 0) {
+            query.setParameter("partnerName", partnerName);
+        }
+        if (limit != null && limit > 0) {
+            query.setMaxResults(limit);
+        }
+        return query;
+    }
+
+    private static int filterMask(LocalDate fromDate, LocalDate toDate, String partnerName) {
+        return (fromDate != null ? FROM_DATE : 0)
+                | (toDate != null ? TO_DATE : 0)
+                | (hasText(partnerName) ? PARTNER_NAME : 0);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static String[] buildVariants(String base, String... filterClauses) {
+        String[] variants = new String[1 << filterClauses.length];
+        for (int mask = 0; mask < variants.length; mask++) {
+            StringBuilder jpql = new StringBuilder(base);
+            for (int bit = 0; bit < filterClauses.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    jpql.append(filterClauses[bit]);
+                }
+            }
+            variants[mask] = jpql.append(HISTORY_ORDER).toString();
+        }
+        return variants;
+    }
+
+    /**
+     * A training row with its references already resolved to ids.
+     */
+    public record LockedTraining(long id, long trainerId, LocalDate trainingDate, int trainingDuration) {
+    }
+
+    public record NewTraining(long traineeId, long trainerId, long trainingTypeId, String trainingName,
+                              LocalDate trainingDate, int trainingDuration) {
+    }
+}
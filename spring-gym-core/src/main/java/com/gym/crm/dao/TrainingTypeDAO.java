@@ -6,7 +6,6 @@ import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public class TrainingTypeDAO {
@@ -14,12 +13,8 @@ public class TrainingTypeDAO {
     @PersistenceContext
     private EntityManager entityManager;
 
-    public Optional<TrainingType> findById(Long id) {
-        return Optional.ofNullable(entityManager.find(TrainingType.class, id));
-    }
-
     public List<TrainingType> findAll() {
-        return entityManager.createQuery("SELECT tt FROM TrainingType tt", TrainingType.class)
+        return entityManager.createQuery("SELECT tt FROM TrainingType tt ORDER BY tt.id", TrainingType.class)
                 .getResultList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.dto.auth.UserCredentialsDto;
+import com.gym.crm.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+@Repository
+public class UserDAO {
+
+    private static final char LIKE_ESCAPE = '!';
+    private static final int PREFIXES_PER_QUERY = 32;
+    // Short prefix groups are padded with their last prefix, so every lookup uses this one statement.
+    private static final String USERNAMES_STARTING_WITH_ANY = buildPrefixQuery(PREFIXES_PER_QUERY);
+    private static final String USERNAME_CONSTRAINT = "uk_users_username";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Whether the failure is the {@code uk_users_username} unique violation, i.e. a concurrent registration took the
+     * username first. H2 reports the constraint through its index name ({@code PUBLIC.UK_USERS_USERNAME_INDEX_6}),
+     * so the name is matched as a substring.
+     */
+    public static boolean isUsernameConflict(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null && constraint.toLowerCase(Locale.ROOT).contains(USERNAME_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolves a trainee or a trainer by its natural id; the result is the concrete subtype.
+     */
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+
+    /**
+     * Username, password hash and role for authentication, without hydrating the entity or its
+     * associations. The role comes from the subtype discriminator in the same statement.
+     * <p>
+     * Called from the JWT filter outside any transaction, where the shared EntityManager closes right after the
+     * query returns; the result is therefore read as a list, never as a stream.
+     */
+    public Optional<UserCredentialsDto> findCredentialsByUsername(String username) {
+        return entityManager.createQuery(
+                        "SELECT new com.gym.crm.dto.auth.UserCredentialsDto(u.username, u.password, " +
+                                "CASE WHEN TYPE(u) = Trainee THEN 'TRAINEE' ELSE 'TRAINER' END) " +
+                                "FROM User u WHERE u.username = :username",
+                        UserCredentialsDto.class)
+                .setParameter("username", username)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Usernames of trainees and trainers that start with the given prefix, in a single
+     * index range scan on {@code users.username}.
+     */
+    public List<String> findUsernamesStartingWith(String prefix) {
+        return entityManager.createQuery(
+                        "SELECT u.username FROM User u WHERE u.username LIKE :prefix ESCAPE '" + LIKE_ESCAPE + "'",
+                        String.class)
+                .setParameter("prefix", escapeLike(prefix) + "%")
+                .getResultList();
+    }
+
+    /**
+     * Usernames starting with any of the given prefixes, {@value #PREFIXES_PER_QUERY} prefixes per statement.
+     */
+    public List<String> findUsernamesStartingWithAny(Collection<String> prefixes) {
+        List<String> patterns = prefixes.stream().distinct().map(prefix -> escapeLike(prefix) + "%").toList();
+        List<String> usernames = new ArrayList<>();
+        for (int from = 0; from < patterns.size(); from += PREFIXES_PER_QUERY) {
+            List<String> group = patterns.subList(from, Math.min(patterns.size(), from + PREFIXES_PER_QUERY));
+            var query = entityManager.createQuery(USERNAMES_STARTING_WITH_ANY, String.class);
+            for (int i = 0; i < PREFIXES_PER_QUERY; i++) {
+                query.setParameter("p" + i, group.get(Math.min(i, group.size() - 1)));
+            }
+            usernames.addAll(query.getResultList());
+        }
+        return usernames;
+    }
+
+    private static String buildPrefixQuery(int prefixes) {
+        StringBuilder jpql = new StringBuilder("SELECT u.username FROM User u WHERE ");
+        for (int i = 0; i < prefixes; i++) {
+            jpql.append(i == 0 ? "" : " OR ")
+                .append("u.username LIKE :p").append(i).append(" ESCAPE '").append(LIKE_ESCAPE).append('\'');
+        }
+        return jpql.toString();
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,287 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreCollectionRecreateEvent;
+import org.hibernate.event.spi.PreCollectionRecreateEventListener;
+import org.hibernate.event.spi.PreCollectionUpdateEvent;
+import org.hibernate.event.spi.PreCollectionUpdateEventListener;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the user layout that is not mapped in step with the one that is, for as long as both exist (V5 until the
+ * contract migration). Under JOINED the subtype columns are copied into {@code users}; under SINGLE_TABLE into
+ * {@code trainees}/{@code trainers}. Copies of updated users, and of inserted users under JOINED, go out as one JDBC
+ * batch per table just before commit, after Hibernate's own statements. Under SINGLE_TABLE the subtype rows are
+ * still the targets of the relation tables' foreign keys, so the rows of users inserted in a flush go out as one
+ * batch per table before the first statement of that flush that may reference them (a collection row, a training)
+ * or at its end, and a deleted user's row is removed right before its delete.
+ */
+@Component
+public class UserLayoutShadowWriter implements PostInsertEventListener, PostUpdateEventListener, PreDeleteEventListener,
+        PreInsertEventListener, PreUpdateEventListener, PreCollectionRecreateEventListener,
+        PreCollectionUpdateEventListener, FlushEventListener, AutoFlushEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserLayoutShadowWriter.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final boolean enabled;
+    private final Map<SharedSessionContractImplementor, Set<User>> pendingBySession = new ConcurrentHashMap<>();
+    private final Map<SharedSessionContractImplementor, Set<User>> insertedBySession = new ConcurrentHashMap<>();
+    private volatile boolean singleTable;
+
+    public UserLayoutShadowWriter(EntityManagerFactory entityManagerFactory,
+                                  @Value("${users.layout.shadow-writes}") boolean enabled) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void register() {
+        singleTable = sessionFactory.getMappingMetamodel().getEntityDescriptor(User.class)
+                instanceof SingleTableEntityPersister;
+        LOGGER.info("User layout {}, shadow writes {}", singleTable ? "SINGLE_TABLE" : "JOINED", enabled ? "on" : "off");
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.PRE_DELETE, this);
+        if (singleTable) {
+            registry.appendListeners(EventType.PRE_INSERT, this);
+            registry.appendListeners(EventType.PRE_UPDATE, this);
+            registry.appendListeners(EventType.PRE_COLLECTION_RECREATE, this);
+            registry.appendListeners(EventType.PRE_COLLECTION_UPDATE, this);
+            registry.appendListeners(EventType.FLUSH, this);
+            registry.appendListeners(EventType.AUTO_FLUSH, this);
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (singleTable && (event.getEntity() instanceof Trainee || event.getEntity() instanceof Trainer)) {
+            EventSource session = event.getSession();
+            insertedBySession.computeIfAbsent(session, key -> {
+                session.getActionQueue().registerProcess(
+                        (AfterTransactionCompletionProcess) (success, completed) -> insertedBySession.remove(key));
+                return Collections.newSetFromMap(new IdentityHashMap<>());
+            }).add((User) event.getEntity());
+            return;
+        }
+        queue(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        if (!(event.getEntity() instanceof User)) {
+            writeInserted(event.getSession());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        if (!(event.getEntity() instanceof User)) {
+            writeInserted(event.getSession());
+        }
+        return false;
+    }
+
+    @Override
+    public void onPreRecreateCollection(PreCollectionRecreateEvent event) {
+        writeInserted(event.getSession());
+    }
+
+    @Override
+    public void onPreUpdateCollection(PreCollectionUpdateEvent event) {
+        writeInserted(event.getSession());
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        writeInserted(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        writeInserted(event.getSession());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        queue(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        if (!(event.getEntity() instanceof Trainee) && !(event.getEntity() instanceof Trainer)) {
+            return false;
+        }
+        Set<User> pending = pendingBySession.get(event.getSession());
+        if (pending != null) {
+            pending.remove((User) event.getEntity());
+        }
+        Set<User> inserted = insertedBySession.get(event.getSession());
+        if (inserted != null) {
+            inserted.remove((User) event.getEntity());
+        }
+        if (singleTable) {
+            // The subtype row references users, so it has to go before Hibernate deletes the user
+            String table = event.getEntity() instanceof Trainee ? "trainees" : "trainers";
+            event.getSession().doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + " WHERE id = ?")) {
+                    statement.setLong(1, (Long) event.getId());
+                    statement.executeUpdate();
+                }
+            });
+        }
+        return false;
+    }
+
+    private void queue(Object entity, EventSource session) {
+        if (!(entity instanceof Trainee) && !(entity instanceof Trainer)) {
+            return;
+        }
+        pendingBySession.computeIfAbsent(session, key -> {
+            Set<User> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+            session.getActionQueue().registerProcess(
+                    (BeforeTransactionCompletionProcess) completing -> writeShadows(pending, completing));
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, completed) -> pendingBySession.remove(key));
+            return pending;
+        }).add((User) entity);
+    }
+
+    /**
+     * Writes the subtype rows of the users inserted so far in this flush, once their own inserts have been sent.
+     */
+    private void writeInserted(EventSource session) {
+        Set<User> inserted = insertedBySession.get(session);
+        if (inserted == null || inserted.isEmpty()) {
+            return;
+        }
+        Subtypes subtypes = subtypes(inserted);
+        inserted.clear();
+        session.getJdbcCoordinator().executeBatch();
+        session.doWork(connection -> writeSingleTable(connection, subtypes));
+    }
+
+    private void writeShadows(Set<User> pending, SessionImplementor session) {
+        Subtypes subtypes = subtypes(pending);
+        session.doWork(connection -> {
+            if (singleTable) {
+                writeSingleTable(connection, subtypes);
+            } else {
+                batch(connection, "UPDATE users SET date_of_birth = ?, address = ? WHERE id = ?",
+                        subtypes.trainees(), (statement, trainee) -> {
+                            statement.setObject(1, trainee.getDateOfBirth(), Types.DATE);
+                            statement.setString(2, trainee.getAddress());
+                            statement.setLong(3, trainee.getId());
+                        });
+                batch(connection, "UPDATE users SET specialization_id = ? WHERE id = ?",
+                        subtypes.trainers(), (statement, trainer) -> {
+                            statement.setObject(1, specializationId(trainer), Types.BIGINT);
+                            statement.setLong(2, trainer.getId());
+                        });
+            }
+        });
+    }
+
+    private static void writeSingleTable(Connection connection, Subtypes subtypes) throws SQLException {
+        batch(connection, "MERGE INTO trainees (id, date_of_birth, address) KEY (id) VALUES (?, ?, ?)",
+                subtypes.trainees(), (statement, trainee) -> {
+                    statement.setLong(1, trainee.getId());
+                    statement.setObject(2, trainee.getDateOfBirth(), Types.DATE);
+                    statement.setString(3, trainee.getAddress());
+                });
+        batch(connection, "MERGE INTO trainers (id, specialization_id) KEY (id) VALUES (?, ?)",
+                subtypes.trainers(), (statement, trainer) -> {
+                    statement.setLong(1, trainer.getId());
+                    statement.setObject(2, specializationId(trainer), Types.BIGINT);
+                });
+    }
+
+    private static Subtypes subtypes(Collection<User> users) {
+        List<Trainee> trainees = new ArrayList<>();
+        List<Trainer> trainers = new ArrayList<>();
+        for (User user : users) {
+            if (user instanceof Trainee trainee) {
+                trainees.add(trainee);
+            } else {
+                trainers.add((Trainer) user);
+            }
+        }
+        return new Subtypes(trainees, trainers);
+    }
+
+    private static Long specializationId(Trainer trainer) {
+        return trainer.getSpecialization() != null ? trainer.getSpecialization().getId() : null;
+    }
+
+    private static <T> void batch(Connection connection, String sql, List<T> rows,
+                                  ParameterizedPreparedStatementSetter<T> setter) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (T row : rows) {
+                setter.setValues(statement, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private record Subtypes(List<Trainee> trainees, List<Trainer> trainers) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.gym.crm.dto.auth;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of a bulk registration response: the generated credentials, or why the entry at {@code index} was skipped.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportedCredentialsDto(long index, String username, String password, String error) {
+
+    public static ImportedCredentialsDto created(long index, String username, String password) {
+        return new ImportedCredentialsDto(index, username, password, null);
+    }
+
+    public static ImportedCredentialsDto rejected(long index, String error) {
+        return new ImportedCredentialsDto(index, null, null, error);
+    }
+}
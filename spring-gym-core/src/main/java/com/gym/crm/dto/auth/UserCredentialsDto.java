@@ -0,0 +1,14 @@
+package com.gym.crm.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCredentialsDto {
+    private String username;
+    private String password;
+    private String role;
+}
@@ -3,6 +3,7 @@ package com.gym.crm.dto.trainee;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 @Data
@@ -12,5 +13,7 @@ public class TraineeProfileResponseDto {
     private LocalDate dateOfBirth;
     private String address;
     private boolean isActive;
+    // Absent from the JSON when the request's fields= left it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<TrainerInfoDto> trainers;
 }
\ No newline at end of file
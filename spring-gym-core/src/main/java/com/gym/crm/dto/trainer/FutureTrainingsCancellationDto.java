@@ -0,0 +1,15 @@
+package com.gym.crm.dto.trainer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FutureTrainingsCancellationDto {
+    private String trainerUsername;
+    private int cancelledTrainings;
+    private int workloadUpdates;
+    private long elapsedMillis;
+}
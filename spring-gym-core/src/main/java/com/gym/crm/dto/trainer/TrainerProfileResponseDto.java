@@ -1,5 +1,6 @@
 package com.gym.crm.dto.trainer;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.util.List;
 
@@ -9,5 +10,7 @@ public class TrainerProfileResponseDto {
     private String lastName;
     private String specialization;
     private boolean isActive;
+    // Absent from the JSON when the request's fields= left it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<TraineeInfoDto> trainees;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.gym.crm.dto.training;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a batch, identified by its position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTrainingItemResultDto {
+    private int index;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        CREATED, REJECTED
+    }
+}
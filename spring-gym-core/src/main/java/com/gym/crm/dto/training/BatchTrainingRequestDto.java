@@ -0,0 +1,18 @@
+package com.gym.crm.dto.training;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTrainingRequestDto {
+
+    public static final int MAX_TRAININGS = 1000;
+
+    @NotEmpty(message = "At least one training is required")
+    @Size(max = MAX_TRAININGS, message = "At most " + MAX_TRAININGS + " trainings per batch")
+    private List<@Valid AddTrainingRequestDto> trainings;
+}
@@ -0,0 +1,16 @@
+package com.gym.crm.dto.training;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTrainingResponseDto {
+    private int created;
+    private int rejected;
+    private List<BatchTrainingItemResultDto> results;
+}
@@ -0,0 +1,11 @@
+package com.gym.crm.dto.training;
+
+import java.time.LocalDate;
+
+/**
+ * Row of a trainee's or trainer's training history, projected straight from JPQL.
+ * {@code partnerUsername} is the trainer for trainee history and the trainee for trainer history.
+ */
+public record TrainingHistoryRecord(String trainingName, LocalDate trainingDate, String trainingType,
+                                    Integer trainingDuration, String partnerUsername) {
+}
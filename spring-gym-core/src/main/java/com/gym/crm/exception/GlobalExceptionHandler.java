@@ -3,6 +3,7 @@ package com.gym.crm.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -34,6 +35,15 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ErrorResponseDto> handleInvalidRequest(InvalidRequestException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(ex.getMessage());
+        LOGGER.warn("Invalid request: {}", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+
     @ExceptionHandler(EntityNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<ErrorResponseDto> handleEntityNotFound(EntityNotFoundException ex) {
@@ -75,4 +85,14 @@ public class GlobalExceptionHandler {
         LOGGER.warn("Data integrity violation: {}", message);
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<ErrorResponseDto> handleServiceOverloaded(ServiceOverloadedException ex) {
+        ErrorResponseDto error = new ErrorResponseDto(ex.getMessage());
+        LOGGER.warn("Request shed due to overload: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.gym.crm.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
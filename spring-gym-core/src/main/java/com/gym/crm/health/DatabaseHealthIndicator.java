@@ -1,32 +1,146 @@
 package com.gym.crm.health;
 
-import com.gym.crm.service.TrainingTypeService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database health from a background probe: a {@code SELECT 1} runs on a fixed delay and actuator calls only
+ * read the last result, so health checks and scrapes add no query load. A result older than the staleness
+ * bound is reported as DOWN, since it no longer says anything about the database.
+ */
 @Component
 public class DatabaseHealthIndicator implements HealthIndicator {
 
-    private final TrainingTypeService trainingTypeService;
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseHealthIndicator.class);
+    private static final String VALIDATION_QUERY = "SELECT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private final Timer probeTimer;
+
+    private volatile ProbeResult lastResult;
+
+    @Autowired
+    public DatabaseHealthIndicator(DataSource dataSource, MeterRegistry meterRegistry,
+                                   @Value("${health.database.max-staleness}") Duration maxStaleness,
+                                   @Value("${health.database.query-timeout}") Duration queryTimeout) {
+        this(dataSource, meterRegistry, maxStaleness, queryTimeout, Clock.systemUTC());
+    }
+
+    DatabaseHealthIndicator(DataSource dataSource, MeterRegistry meterRegistry, Duration maxStaleness,
+                            Duration queryTimeout, Clock clock) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+        this.probeTimer = Timer.builder("crm.db.probe.latency")
+                .description("Latency of the background database validation query")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
 
-    public DatabaseHealthIndicator(TrainingTypeService trainingTypeService) {
-        this.trainingTypeService = trainingTypeService;
+    @Scheduled(fixedDelayString = "${health.database.probe-interval}")
+    public void probe() {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.queryForObject(VALIDATION_QUERY, Integer.class);
+            long elapsed = System.nanoTime() - start;
+            probeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastResult = new ProbeResult(true, clock.instant(), Duration.ofNanos(elapsed), null);
+        } catch (RuntimeException ex) {
+            long elapsed = System.nanoTime() - start;
+            probeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastResult = new ProbeResult(false, clock.instant(), Duration.ofNanos(elapsed), ex);
+            LOGGER.warn("Database probe failed: {}", ex.getMessage());
+        }
     }
 
     @Override
     public Health health() {
-        try {
-            long count = trainingTypeService.findAll().size();
-            
-            return Health.up()
-                         .withDetail("message", "Database connection is OK")
-                         .withDetail("training_types_found", count)
-                         .build();
-        } catch (Exception ex) {
-            return Health.down(ex) 
-                         .withDetail("message", "Database connection failed")
+        ProbeResult result = lastResult;
+        if (result == null) {
+            return Health.unknown()
+                         .withDetail("message", "Database probe has not run yet")
                          .build();
         }
+
+        Duration age = Duration.between(result.checkedAt(), clock.instant());
+        Health.Builder builder;
+        if (age.compareTo(maxStaleness) > 0) {
+            builder = Health.down().withDetail("message", "Database probe result is stale");
+        } else if (result.up()) {
+            builder = Health.up().withDetail("message", "Database connection is OK");
+        } else {
+            builder = Health.down(result.error()).withDetail("message", "Database connection failed");
+        }
+
+        builder.withDetail("checkedAt", result.checkedAt().toString())
+               .withDetail("ageMillis", age.toMillis())
+               .withDetail("probeLatencyMillis", result.latency().toMillis())
+               .withDetail("probeLatencyPercentilesMillis", latencyPercentiles());
+        Map<String, Object> pool = poolDetails();
+        if (!pool.isEmpty()) {
+            builder.withDetail("pool", pool);
+        }
+        return builder.build();
+    }
+
+    private Map<String, Double> latencyPercentiles() {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile value : probeTimer.takeSnapshot().percentileValues()) {
+            percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        return percentiles;
+    }
+
+    private Map<String, Object> poolDetails() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return details;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                return details;
+            }
+            int max = hikari.getMaximumPoolSize();
+            details.put("active", pool.getActiveConnections());
+            details.put("idle", pool.getIdleConnections());
+            details.put("total", pool.getTotalConnections());
+            details.put("max", max);
+            details.put("threadsAwaitingConnection", pool.getThreadsAwaitingConnection());
+            details.put("saturation", max > 0 ? (double) pool.getActiveConnections() / max : 0.0);
+        } catch (SQLException ex) {
+            LOGGER.debug("Connection pool details unavailable: {}", ex.getMessage());
+        }
+        return details;
+    }
+
+    private record ProbeResult(boolean up, Instant checkedAt, Duration latency, Throwable error) {
     }
-}
\ No newline at end of file
+}
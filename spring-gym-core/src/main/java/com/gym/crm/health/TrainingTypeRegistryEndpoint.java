@@ -0,0 +1,36 @@
+package com.gym.crm.health;
+
+import com.gym.crm.model.TrainingType;
+import com.gym.crm.service.TrainingTypeService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code GET /actuator/trainingtypes} shows the in-memory registry; {@code POST} reloads it from the database.
+ */
+@Component
+@Endpoint(id = "trainingtypes")
+public class TrainingTypeRegistryEndpoint {
+
+    private final TrainingTypeService trainingTypeService;
+
+    public TrainingTypeRegistryEndpoint(TrainingTypeService trainingTypeService) {
+        this.trainingTypeService = trainingTypeService;
+    }
+
+    @ReadOperation
+    public Map<Long, String> trainingTypes() {
+        return trainingTypeService.findAll().stream()
+                .collect(Collectors.toMap(TrainingType::getId, TrainingType::getTrainingTypeName));
+    }
+
+    @WriteOperation
+    public Map<String, Integer> refresh() {
+        return Map.of("loaded", trainingTypeService.refresh());
+    }
+}
@@ -0,0 +1,99 @@
+package com.gym.crm.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dual-read check for the user layout migration: reads every trainee and trainer from both layouts and counts
+ * the rows where they disagree, published as {@code crm.users.layout.drift}. Switching layouts is safe once the
+ * drift has stayed at zero for the whole dual-read period.
+ * <p>
+ * The tables are compared in id ranges of {@code users.layout.dual-read.range-size}, so each statement touches a
+ * bounded slice of the index instead of scanning the whole table in one go. The gauges change only after a full pass.
+ */
+@Component
+@ConditionalOnProperty(name = "users.layout.dual-read.enabled", havingValue = "true")
+public class UserLayoutVerifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserLayoutVerifier.class);
+
+    private static final String ID_BOUNDS = "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM users";
+
+    // users rows whose subtype copy is missing or different, plus subtype rows whose users row is not of that type
+    private static final String TRAINEE_DRIFT =
+            "SELECT (SELECT COUNT(*) FROM users u LEFT JOIN trainees t ON t.id = u.id " +
+                    "WHERE u.id BETWEEN ? AND ? AND u.user_type = 'TRAINEE' " +
+                    "AND (t.id IS NULL OR u.date_of_birth IS DISTINCT FROM t.date_of_birth " +
+                    "OR u.address IS DISTINCT FROM t.address)) " +
+                    "+ (SELECT COUNT(*) FROM trainees t LEFT JOIN users u ON u.id = t.id " +
+                    "WHERE t.id BETWEEN ? AND ? AND u.user_type IS DISTINCT FROM 'TRAINEE')";
+    private static final String TRAINER_DRIFT =
+            "SELECT (SELECT COUNT(*) FROM users u LEFT JOIN trainers t ON t.id = u.id " +
+                    "WHERE u.id BETWEEN ? AND ? AND u.user_type = 'TRAINER' " +
+                    "AND (t.id IS NULL OR u.specialization_id IS DISTINCT FROM t.specialization_id)) " +
+                    "+ (SELECT COUNT(*) FROM trainers t LEFT JOIN users u ON u.id = t.id " +
+                    "WHERE t.id BETWEEN ? AND ? AND u.user_type IS DISTINCT FROM 'TRAINER')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long rangeSize;
+    private final AtomicLong traineeDrift = new AtomicLong();
+    private final AtomicLong trainerDrift = new AtomicLong();
+
+    public UserLayoutVerifier(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${users.layout.dual-read.range-size}") long rangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rangeSize = rangeSize;
+        Gauge.builder("crm.users.layout.drift", traineeDrift, AtomicLong::get)
+                .description("Rows that differ between the JOINED and SINGLE_TABLE user layouts")
+                .tag("type", "trainee")
+                .register(meterRegistry);
+        Gauge.builder("crm.users.layout.drift", trainerDrift, AtomicLong::get)
+                .description("Rows that differ between the JOINED and SINGLE_TABLE user layouts")
+                .tag("type", "trainer")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${users.layout.dual-read.interval}")
+    public void verify() {
+        long trainees = 0;
+        long trainers = 0;
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(ID_BOUNDS);
+        if (bounds.get("min_id") != null) {
+            long minId = ((Number) bounds.get("min_id")).longValue();
+            long maxId = ((Number) bounds.get("max_id")).longValue();
+            for (long from = minId; from <= maxId; from += rangeSize) {
+                long to = Math.min(from + rangeSize - 1, maxId);
+                trainees += countDrift(TRAINEE_DRIFT, from, to);
+                trainers += countDrift(TRAINER_DRIFT, from, to);
+            }
+        }
+        traineeDrift.set(trainees);
+        trainerDrift.set(trainers);
+        if (traineeDrift.get() > 0 || trainerDrift.get() > 0) {
+            LOGGER.warn("User layouts differ: {} trainee rows, {} trainer rows", traineeDrift.get(), trainerDrift.get());
+        }
+    }
+
+    private long countDrift(String sql, long from, long to) {
+        Long drift = jdbcTemplate.queryForObject(sql, Long.class, from, to, from, to);
+        return drift != null ? drift : 0;
+    }
+
+    long traineeDrift() {
+        return traineeDrift.get();
+    }
+
+    long trainerDrift() {
+        return trainerDrift.get();
+    }
+}
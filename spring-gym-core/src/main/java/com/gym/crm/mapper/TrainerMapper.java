@@ -5,12 +5,25 @@ import com.gym.crm.dto.trainer.TrainerProfileResponseDto;
 import com.gym.crm.model.Trainer;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
 public class TrainerMapper {
 
     public TrainerProfileResponseDto toTrainerProfileResponseDto(Trainer trainer) {
+        return toTrainerProfileResponseDto(trainer, trainer.getTrainees().stream()
+                .map(trainee -> {
+                    TraineeInfoDto traineeDto = new TraineeInfoDto();
+                    traineeDto.setUsername(trainee.getUsername());
+                    traineeDto.setFirstName(trainee.getFirstName());
+                    traineeDto.setLastName(trainee.getLastName());
+                    return traineeDto;
+                })
+                .collect(Collectors.toList()));
+    }
+
+    public TrainerProfileResponseDto toTrainerProfileResponseDto(Trainer trainer, List<TraineeInfoDto> trainees) {
         TrainerProfileResponseDto dto = new TrainerProfileResponseDto();
         dto.setFirstName(trainer.getFirstName());
         dto.setLastName(trainer.getLastName());
@@ -20,15 +33,7 @@ public class TrainerMapper {
             dto.setSpecialization(trainer.getSpecialization().getTrainingTypeName());
         }
 
-        dto.setTrainees(trainer.getTrainees().stream()
-                .map(trainee -> {
-                    TraineeInfoDto traineeDto = new TraineeInfoDto();
-                    traineeDto.setUsername(trainee.getUsername());
-                    traineeDto.setFirstName(trainee.getFirstName());
-                    traineeDto.setLastName(trainee.getLastName());
-                    return traineeDto;
-                })
-                .collect(Collectors.toList()));
+        dto.setTrainees(trainees);
         return dto;
     }
-}
\ No newline at end of file
+}
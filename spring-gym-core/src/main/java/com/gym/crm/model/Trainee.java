@@ -3,12 +3,21 @@ package com.gym.crm.model;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "trainees")
+// Table "trainees" is set in META-INF/orm-joined-users.xml: a SINGLE_TABLE subclass may not carry @Table
+@DiscriminatorValue("TRAINEE")
+@NamedEntityGraph(name = Trainee.PROFILE_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "trainers", subgraph = "trainers"),
+        subgraphs = @NamedSubgraph(name = "trainers", attributeNodes = @NamedAttributeNode("specialization")))
 public class Trainee extends User {
 
+    /** Everything the trainee profile response maps: trainers with their specialization. */
+    public static final String PROFILE_GRAPH = "Trainee.profile";
+
     @Column(name = "date_of_birth")
     private LocalDate dateOfBirth;
 
@@ -21,9 +30,10 @@ public class Trainee extends User {
         joinColumns = @JoinColumn(name = "trainee_id"),
         inverseJoinColumns = @JoinColumn(name = "trainer_id")
     )
-    private List<Trainer> trainers = new ArrayList<>();
+    private Set<Trainer> trainers = new LinkedHashSet<>();
     
-    @OneToMany(mappedBy = "trainee", cascade = CascadeType.REMOVE, orphanRemoval = true)
+    // Not cascaded: TraineeService deletes trainings with one bulk statement before the trainee itself
+    @OneToMany(mappedBy = "trainee")
     private List<Training> trainings = new ArrayList<>();
 
 
@@ -56,11 +66,11 @@ public class Trainee extends User {
                 '}';
     }
 
-    public List<Trainer> getTrainers() {
+    public Set<Trainer> getTrainers() {
         return trainers;
     }
 
-    public void setTrainers(List<Trainer> trainers) {
+    public void setTrainers(Set<Trainer> trainers) {
         this.trainers = trainers;
     }
     
@@ -2,20 +2,31 @@ package com.gym.crm.model;
 
 import jakarta.persistence.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "trainers")
+// Table "trainers" is set in META-INF/orm-joined-users.xml: a SINGLE_TABLE subclass may not carry @Table
+@DiscriminatorValue("TRAINER")
+@NamedEntityGraph(name = Trainer.PROFILE_GRAPH, attributeNodes = {
+        @NamedAttributeNode("specialization"),
+        @NamedAttributeNode("trainees")
+})
 public class Trainer extends User {
 
+    /** Everything the trainer profile response maps: specialization and trainees. */
+    public static final String PROFILE_GRAPH = "Trainer.profile";
+
     @ManyToOne
     @JoinColumn(name = "specialization_id")
     private TrainingType specialization;
 
     @ManyToMany(mappedBy = "trainers", fetch = FetchType.LAZY)
-    private List<Trainee> trainees = new ArrayList<>();
+    private Set<Trainee> trainees = new LinkedHashSet<>();
     
-    @OneToMany(mappedBy = "trainer", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Not cascaded: trainings are only ever written and deleted through TrainingDAO
+    @OneToMany(mappedBy = "trainer")
     private List<Training> trainings = new ArrayList<>();
 
     public TrainingType getSpecialization() {
@@ -38,11 +49,11 @@ public class Trainer extends User {
                 '}';
     }
 
-    public List<Trainee> getTrainees() {
+    public Set<Trainee> getTrainees() {
         return trainees;
     }
 
-    public void setTrainees(List<Trainee> trainees) {
+    public void setTrainees(Set<Trainee> trainees) {
         this.trainees = trainees;
     }
 
@@ -8,18 +8,20 @@ import java.time.LocalDate;
 public class Training {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainings_seq")
+    @SequenceGenerator(name = "trainings_seq", sequenceName = "trainings_seq", allocationSize = 50)
     private Long id;
     
-    @ManyToOne(optional = false)
+    // All three links are lazy: loading a training costs one row, callers join what they need explicitly
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "trainee_id", nullable = false)
     private Trainee trainee;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "trainer_id", nullable = false)
     private Trainer trainer;
     
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "training_type_id", nullable = false)
     private TrainingType trainingType;
 
@@ -98,7 +100,7 @@ public class Training {
                 ", trainee=" + (trainee != null ? trainee.getId() : "null") + 
                 ", trainer=" + (trainer != null ? trainer.getId() : "null") + 
                 ", trainingName='" + trainingName + '\'' +
-                ", trainingType=" + trainingType +
+                ", trainingType=" + (trainingType != null ? trainingType.getId() : "null") +
                 ", trainingDate=" + trainingDate +
                 ", trainingDuration=" + trainingDuration +
                 '}';
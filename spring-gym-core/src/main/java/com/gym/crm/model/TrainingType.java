@@ -1,13 +1,19 @@
 package com.gym.crm.model;
 
 import jakarta.persistence.*; 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 @Entity
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Table(name = "training_types")
 public class TrainingType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "training_types_seq")
+    @SequenceGenerator(name = "training_types_seq", sequenceName = "training_types_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "training_type_name", nullable = false)
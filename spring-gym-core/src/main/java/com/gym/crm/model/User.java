@@ -1,14 +1,25 @@
 package com.gym.crm.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.util.Objects;
 
 @Entity
 @Table(name = "users")
 @Inheritance(strategy = InheritanceType.JOINED)
+// Written under both layouts; the single-table-users profile switches the hierarchy to SINGLE_TABLE in orm.xml
+@DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING, length = 16)
+@NaturalIdCache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name", nullable = false)
@@ -17,9 +28,12 @@ public class User {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    @NaturalId
     @Column(nullable = false, unique = true) 
     private String username;
 
+    // Only credential checks read the hash; with bytecode enhancement it stays out of every other user load
+    @Basic(fetch = FetchType.LAZY)
     @Column(nullable = false)
     private String password;
 
@@ -74,6 +88,26 @@ public class User {
         isActive = active;
     }
 
+    /**
+     * Users are equal by username, their natural id, so trainee/trainer sets behave the same for managed,
+     * detached and proxied instances.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return getUsername() != null && getUsername().equals(other.getUsername());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getUsername());
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -0,0 +1,53 @@
+package com.gym.crm.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt strength whose hash time stays within a latency target on this machine.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Sample-9";
+    private static final int SAMPLES = 3;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        long targetNanos = target.toNanos();
+        long baseline = measure(minStrength);
+
+        // Every strength step doubles the work, so extrapolate from the baseline first.
+        int strength = minStrength;
+        long estimate = baseline;
+        while (strength < maxStrength && estimate * 2 <= targetNanos) {
+            strength++;
+            estimate *= 2;
+        }
+
+        while (strength > minStrength && measure(strength) > targetNanos) {
+            strength--;
+        }
+
+        LOGGER.info("Calibrated BCrypt strength {} for a {} ms target (strength {} took {} ms)",
+                strength, target.toMillis(), minStrength, Duration.ofNanos(baseline).toMillis());
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
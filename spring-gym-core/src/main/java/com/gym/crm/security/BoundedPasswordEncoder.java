@@ -0,0 +1,166 @@
+package com.gym.crm.security;
+
+import com.gym.crm.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs password hashing on a dedicated fixed-size pool with a bounded queue.
+ *
+ * Hashing is CPU-bound, so the pool is sized to the core count and callers that
+ * find the queue full are rejected immediately with {@link ServiceOverloadedException}
+ * instead of tying up request threads behind a login storm. Bulk hashing runs on a
+ * separate, smaller pool so an import never takes the threads logins need.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+    private static final String METRIC_PREFIX = "crm.password.hashing";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor bulkExecutor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this(delegate, threads, queueCapacity, Math.max(1, threads / 2), meterRegistry);
+    }
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, int bulkThreads,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Imports wait for each other here rather than being rejected; each one queues at most bulkThreads slices.
+        this.bulkExecutor = new ThreadPoolExecutor(bulkThreads, bulkThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("password-hashing-bulk-"));
+
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+        new ExecutorServiceMetrics(bulkExecutor, "password.hashing.bulk", Tags.empty()).bindTo(meterRegistry);
+
+        this.encodeTimer = Timer.builder(METRIC_PREFIX)
+                .description("Time spent computing password hashes")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC_PREFIX)
+                .description("Time spent computing password hashes")
+                .tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder(METRIC_PREFIX + ".queue.wait")
+                .description("Time password operations wait for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Password operations rejected because the hashing queue was full")
+                .register(meterRegistry);
+
+        LOGGER.info("Password hashing pool started with {} threads and queue capacity {}, {} bulk threads",
+                threads, queueCapacity, bulkThreads);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes a whole list on the bulk pool, one slice per bulk thread, leaving the login pool free;
+     * the result keeps the input order.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int size = rawPasswords.size();
+        int slices = Math.min(bulkExecutor.getCorePoolSize(), size);
+        String[] encoded = new String[size];
+        List<Future<Void>> futures = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int from = (int) ((long) slice * size / slices);
+            int to = (int) ((long) (slice + 1) * size / slices);
+            futures.add(bulkExecutor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    CharSequence rawPassword = rawPasswords.get(i);
+                    encoded[i] = encodeTimer.record(() -> delegate.encode(rawPassword));
+                }
+                return null;
+            }));
+        }
+        futures.forEach(BoundedPasswordEncoder::await);
+        return Arrays.asList(encoded);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        bulkExecutor.shutdown();
+    }
+
+    private <T> T execute(Timer timer, Callable<T> operation) {
+        return await(submit(() -> timer.recordCallable(operation)));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            LOGGER.warn("Password hashing queue is full, rejecting request");
+            throw new ServiceOverloadedException("Too many concurrent authentication requests. Please retry shortly.");
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.gym.crm.service;
+
+import com.gym.crm.dao.TrainerDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sorted array of active trainer ids (8 bytes per trainer), so the unassigned-trainers page can be picked in memory.
+ * <p>
+ * Trainer creation and activation changes bump the version, once more after their transaction completes so a
+ * rebuild that raced the change cannot survive it. A snapshot of an older version, or older than
+ * {@code trainer.active-index.max-age} (changes made on other instances), is stale. Readers never wait for a
+ * rebuild: the one that wins the lock reloads the ids, the others get empty and use the database anti-join.
+ */
+@Component
+public class ActiveTrainerIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActiveTrainerIndex.class);
+
+    private final TrainerDAO trainerDAO;
+    private final long maxAgeNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public ActiveTrainerIndex(TrainerDAO trainerDAO, @Value("${trainer.active-index.max-age}") Duration maxAge) {
+        this.trainerDAO = trainerDAO;
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Up to {@code limit} active trainer ids greater than {@code afterId} and not in {@code excluded}, in id order;
+     * empty when the index is stale and another caller is already rebuilding it.
+     */
+    public Optional<List<Long>> pageAfter(long afterId, Set<Long> excluded, int limit) {
+        return currentIds().map(ids -> {
+            int from = Arrays.binarySearch(ids, afterId);
+            from = from >= 0 ? from + 1 : -from - 1;
+            List<Long> page = new ArrayList<>(Math.min(limit, ids.length - from));
+            for (int i = from; i < ids.length && page.size() < limit; i++) {
+                if (!excluded.contains(ids[i])) {
+                    page.add(ids[i]);
+                }
+            }
+            return page;
+        });
+    }
+
+    /**
+     * Marks the index stale now and again when the surrounding transaction, if any, completes.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private Optional<long[]> currentIds() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return Optional.of(current.ids());
+        }
+        if (!rebuildLock.tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            current = snapshot;
+            if (!isFresh(current)) {
+                // Read the version first: a change committed while the ids load leaves this snapshot stale.
+                long rebuiltVersion = version.get();
+                long[] ids = trainerDAO.findActiveIds().stream().mapToLong(Long::longValue).toArray();
+                current = new Snapshot(rebuiltVersion, System.nanoTime(), ids);
+                snapshot = current;
+                LOGGER.debug("Rebuilt active trainer index: {} trainers (version {})", ids.length, rebuiltVersion);
+            }
+            return Optional.of(current.ids());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+                && current.version() == version.get()
+                && System.nanoTime() - current.builtAtNanos() < maxAgeNanos;
+    }
+
+    private record Snapshot(long version, long builtAtNanos, long[] ids) {
+    }
+}
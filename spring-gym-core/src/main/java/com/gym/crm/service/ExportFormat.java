@@ -0,0 +1,35 @@
+package com.gym.crm.service;
+
+import com.gym.crm.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ExportFormat fromParameter(String value) {
+        for (ExportFormat format : values()) {
+            if (format.fileExtension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidRequestException("Unsupported export format: " + value);
+    }
+}
@@ -1,47 +1,130 @@
 package com.gym.crm.service;
 
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
+/**
+ * Sliding-window login throttling per username and per client IP.
+ *
+ * Only failed attempts create entries, so probing unknown usernames never allocates.
+ * Both maps are size-bounded and striped (one lock per cache segment), and an entry
+ * disappears once its newest failure has left the window.
+ */
 @Service
 public class LoginAttemptService {
 
-    public static final int MAX_ATTEMPTS = 3; 
-    private final LoadingCache<String, Integer> attemptsCache;
+    public static final int MAX_ATTEMPTS = 3;
+    public static final int MAX_ATTEMPTS_PER_IP = 20;
+    public static final Duration WINDOW = Duration.ofMinutes(5);
+
+    static final int MAX_TRACKED_KEYS = 100_000;
+    private static final int STRIPES = 16;
+
+    private final Ticker ticker;
+    private final Cache<String, FailureWindow> usernameFailures;
+    private final Cache<String, FailureWindow> ipFailures;
 
     public LoginAttemptService() {
-        super();
-        attemptsCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .build(new CacheLoader<String, Integer>() {
-                    public Integer load(String key) {
-                        return 0; 
-                    }
-                });
+        this(Ticker.systemTicker());
+    }
+
+    LoginAttemptService(Ticker ticker) {
+        this.ticker = ticker;
+        this.usernameFailures = newWindowCache(ticker);
+        this.ipFailures = newWindowCache(ticker);
     }
 
     public void loginFailed(String username) {
-        int attempts = 0;
-        try {
-            attempts = attemptsCache.get(username);
-        } catch (ExecutionException e) {
-            attempts = 0;
-        }
-        attempts++;
-        attemptsCache.put(username, attempts);
+        loginFailed(username, null);
     }
 
+    public void loginFailed(String username, String clientIp) {
+        long now = ticker.read();
+        recordFailure(usernameFailures, username, MAX_ATTEMPTS, now);
+        recordFailure(ipFailures, clientIp, MAX_ATTEMPTS_PER_IP, now);
+    }
 
     public boolean isBlocked(String username) {
-        try {
-            return attemptsCache.get(username) >= MAX_ATTEMPTS;
-        } catch (ExecutionException e) {
+        return isWindowFull(usernameFailures, username, ticker.read());
+    }
+
+    public boolean isBlocked(String username, String clientIp) {
+        return isBlocked(username) || isIpBlocked(clientIp);
+    }
+
+    /**
+     * Whether the client address alone is blocked, whichever usernames its failures were spread over.
+     */
+    public boolean isIpBlocked(String clientIp) {
+        return isWindowFull(ipFailures, clientIp, ticker.read());
+    }
+
+    long trackedKeys() {
+        usernameFailures.cleanUp();
+        ipFailures.cleanUp();
+        return usernameFailures.size() + ipFailures.size();
+    }
+
+    private static Cache<String, FailureWindow> newWindowCache(Ticker ticker) {
+        return CacheBuilder.newBuilder()
+                .concurrencyLevel(STRIPES)
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterWrite(WINDOW)
+                .ticker(ticker)
+                .build();
+    }
+
+    private static void recordFailure(Cache<String, FailureWindow> cache, String key, int limit, long now) {
+        if (key == null) {
+            return;
+        }
+        cache.asMap().compute(key, (k, window) -> {
+            FailureWindow updated = window != null ? window : new FailureWindow(limit);
+            updated.record(now);
+            return updated;
+        });
+    }
+
+    private static boolean isWindowFull(Cache<String, FailureWindow> cache, String key, long now) {
+        if (key == null) {
             return false;
         }
+        FailureWindow window = cache.getIfPresent(key);
+        return window != null && window.isFull(now);
+    }
+
+    /**
+     * Ring of the last {@code limit} failure timestamps; full when the oldest one is still inside the window.
+     */
+    private static final class FailureWindow {
+
+        private static final long WINDOW_NANOS = WINDOW.toNanos();
+
+        private final long[] timestamps;
+        private int next;
+        private int recorded;
+
+        FailureWindow(int limit) {
+            this.timestamps = new long[limit];
+        }
+
+        synchronized void record(long now) {
+            timestamps[next] = now;
+            next = (next + 1) % timestamps.length;
+            if (recorded < timestamps.length) {
+                recorded++;
+            }
+        }
+
+        synchronized boolean isFull(long now) {
+            if (recorded < timestamps.length) {
+                return false;
+            }
+            return now - timestamps[next] < WINDOW_NANOS;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.gym.crm.service;
+
+import com.gym.crm.model.Trainer;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Minutes added to or removed from one trainer's month. The workload service only keys on year and month,
+ * so many trainings collapse into one message per trainer and month.
+ */
+record MonthlyWorkloadDelta(Trainer trainer, YearMonth month, int duration) {
+
+    LocalDate trainingDate() {
+        return month.atDay(1);
+    }
+
+    /**
+     * Accumulates minutes per trainer and month, keeping trainers in first-seen order and months ascending.
+     */
+    static final class Accumulator {
+
+        private final Map<String, Trainer> trainers = new LinkedHashMap<>();
+        private final Map<String, Map<YearMonth, Integer>> minutes = new LinkedHashMap<>();
+
+        void add(Trainer trainer, LocalDate trainingDate, int duration) {
+            trainers.putIfAbsent(trainer.getUsername(), trainer);
+            minutes.computeIfAbsent(trainer.getUsername(), username -> new TreeMap<>())
+                   .merge(YearMonth.from(trainingDate), duration, Integer::sum);
+        }
+
+        List<MonthlyWorkloadDelta> deltas() {
+            List<MonthlyWorkloadDelta> deltas = new ArrayList<>();
+            minutes.forEach((username, byMonth) -> byMonth.forEach((month, total) ->
+                    deltas.add(new MonthlyWorkloadDelta(trainers.get(username), month, total))));
+            return deltas;
+        }
+    }
+}
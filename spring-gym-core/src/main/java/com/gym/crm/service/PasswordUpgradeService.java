@@ -0,0 +1,48 @@
+package com.gym.crm.service;
+
+import com.gym.crm.dao.UserDAO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores a re-hashed password after a successful login whose stored hash is below the current encoding target.
+ */
+@Service
+@Transactional
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PasswordUpgradeService.class);
+
+    private final UserDAO userDAO;
+    private final Counter rehashedCounter;
+
+    public PasswordUpgradeService(UserDAO userDAO, MeterRegistry meterRegistry) {
+        this.userDAO = userDAO;
+        this.rehashedCounter = Counter.builder("crm.password.rehashed.total")
+                .description("Stored passwords re-hashed on login to the current work factor")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        String username = user.getUsername();
+        return userDAO.findByUsername(username)
+                .<UserDetails>map(stored -> {
+                    stored.setPassword(newPassword);
+                    rehashedCounter.increment();
+                    LOGGER.info("Re-hashed stored password for: {}", username);
+                    return User.withUserDetails(user).password(newPassword).build();
+                })
+                .orElseGet(() -> {
+                    LOGGER.warn("User not found for password re-hash: {}", username);
+                    return user;
+                });
+    }
+}
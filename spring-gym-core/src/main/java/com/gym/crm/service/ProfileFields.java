@@ -0,0 +1,35 @@
+package com.gym.crm.service;
+
+import com.gym.crm.exception.InvalidRequestException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code fields=} parameter of the profile endpoints: which associations to query alongside the profile row.
+ */
+final class ProfileFields {
+
+    private ProfileFields() {
+    }
+
+    /**
+     * Returns the requested associations; all of {@code supported} when the parameter is absent, none when it is empty.
+     */
+    static Set<String> resolve(List<String> requested, Set<String> supported) {
+        if (requested == null) {
+            return supported;
+        }
+        Set<String> fields = requested.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        for (String field : fields) {
+            if (!supported.contains(field)) {
+                throw new InvalidRequestException("Unknown field: " + field + " (supported: " + supported + ")");
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,233 @@
+package com.gym.crm.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.dao.UserDAO;
+import com.gym.crm.dto.auth.ImportedCredentialsDto;
+import com.gym.crm.dto.trainee.TraineeRegistrationRequestDto;
+import com.gym.crm.dto.trainer.TrainerRegistrationRequestDto;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.TrainingType;
+import com.gym.crm.model.User;
+import com.gym.crm.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk registration from an NDJSON stream (or a JSON array) of registration requests, answered with an NDJSON stream of credentials.
+ *
+ * Requests are processed in chunks: passwords for the whole chunk are hashed in parallel outside any transaction,
+ * then usernames are allocated with one lookup and the users are inserted in JDBC batches in a single transaction.
+ * Only one chunk is held in memory, and its credentials are flushed to the client before the next one starts.
+ */
+@Service
+public class RegistrationImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrationImportService.class);
+    private static final int USERNAME_ATTEMPTS = 3;
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    private final UserService userService;
+    private final TrainingTypeService trainingTypeService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ActiveTrainerIndex activeTrainerIndex;
+    private final int chunkSize;
+    private final Counter traineeRegistrationsCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RegistrationImportService(UserService userService, TrainingTypeService trainingTypeService,
+                                     BoundedPasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate,
+                                     ObjectMapper objectMapper, Validator validator, ActiveTrainerIndex activeTrainerIndex,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${registration.import.chunk-size}") int chunkSize) {
+        this.userService = userService;
+        this.trainingTypeService = trainingTypeService;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.activeTrainerIndex = activeTrainerIndex;
+        this.chunkSize = chunkSize;
+        this.traineeRegistrationsCounter = Counter.builder("crm.trainee.registrations.total")
+                .description("Total number of new trainee registrations")
+                .tag("entity", "trainee")
+                .register(meterRegistry);
+    }
+
+    public long importTrainees(InputStream in, OutputStream out) throws IOException {
+        long created = importUsers(in, out, TraineeRegistrationRequestDto.class, request -> {
+            Trainee trainee = new Trainee();
+            trainee.setFirstName(request.getFirstName());
+            trainee.setLastName(request.getLastName());
+            trainee.setDateOfBirth(request.getDateOfBirth());
+            trainee.setAddress(request.getAddress());
+            return Optional.of(trainee);
+        });
+        traineeRegistrationsCounter.increment(created);
+        LOGGER.info("Bulk registered {} trainees", created);
+        return created;
+    }
+
+    public long importTrainers(InputStream in, OutputStream out) throws IOException {
+        long created;
+        try {
+            created = importUsers(in, out, TrainerRegistrationRequestDto.class, request ->
+                    trainingTypeService.findById(request.getSpecializationId()).map(specialization -> {
+                        Trainer trainer = new Trainer();
+                        trainer.setFirstName(request.getFirstName());
+                        trainer.setLastName(request.getLastName());
+                        trainer.setSpecialization(specialization);
+                        return trainer;
+                    }));
+        } finally {
+            // Chunks commit one by one, so even a failed import may have added trainers
+            activeTrainerIndex.invalidate();
+        }
+        LOGGER.info("Bulk registered {} trainers", created);
+        return created;
+    }
+
+    /**
+     * @param toUser builds the unsaved user for a valid request, or empty when a reference (the trainer's
+     *               specialization) does not exist
+     */
+    private <T> long importUsers(InputStream in, OutputStream out, Class<T> requestType,
+                                 Function<T, Optional<? extends User>> toUser) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        long created = 0;
+        long index = 0;
+
+        try (MappingIterator<T> requests = objectMapper.readerFor(requestType).readValues(in)) {
+            while (requests.hasNextValue()) {
+                T request = requests.nextValue();
+                long position = index++;
+                String rejection = validate(request);
+                Optional<? extends User> user = rejection == null ? toUser.apply(request) : Optional.empty();
+                if (rejection == null && user.isEmpty()) {
+                    rejection = "Specialization (TrainingType) not found";
+                }
+                if (rejection != null) {
+                    writeLine(writer, ImportedCredentialsDto.rejected(position, rejection));
+                    continue;
+                }
+
+                chunk.add(new Pending(position, user.get()));
+                if (chunk.size() == chunkSize) {
+                    created += registerChunk(chunk, writer);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronised after malformed JSON; report where it broke and keep what was done
+            writeLine(writer, ImportedCredentialsDto.rejected(index, "Malformed JSON: " + e.getOriginalMessage()));
+        }
+        created += registerChunk(chunk, writer);
+        writer.flush();
+        return created;
+    }
+
+    private long registerChunk(List<Pending> chunk, Writer writer) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<String> plainPasswords = chunk.stream()
+                .map(pending -> userService.generatePlainPassword())
+                .collect(Collectors.toList());
+        List<String> encodedPasswords = passwordEncoder.encodeAll(plainPasswords);
+
+        List<String> usernames = insertWithUniqueUsernames(chunk, encodedPasswords);
+        for (int i = 0; i < chunk.size(); i++) {
+            writeLine(writer, ImportedCredentialsDto.created(chunk.get(i).index(), usernames.get(i), plainPasswords.get(i)));
+        }
+        writer.flush();
+        return chunk.size();
+    }
+
+    /**
+     * Allocates usernames and inserts the chunk in one transaction; a concurrent registration that takes one of
+     * the names rolls the chunk back and it is retried with freshly allocated names.
+     */
+    private List<String> insertWithUniqueUsernames(List<Pending> chunk, List<String> encodedPasswords) {
+        List<String> baseUsernames = chunk.stream()
+                .map(pending -> userService.baseUsername(pending.user().getFirstName(), pending.user().getLastName()))
+                .collect(Collectors.toList());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    // Freshly imported users are not worth a second-level cache entry each
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                    List<String> usernames = userService.generateUsernames(baseUsernames);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        User user = chunk.get(i).user();
+                        user.setId(null);
+                        user.setUsername(usernames.get(i));
+                        user.setPassword(encodedPasswords.get(i));
+                        user.setActive(true);
+                        entityManager.persist(user);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    return usernames;
+                });
+            } catch (RuntimeException e) {
+                // The flush runs inside the callback on the shared EntityManager, so a violation arrives as
+                // Hibernate's own exception rather than a translated DataIntegrityViolationException
+                if (!UserDAO.isUsernameConflict(e) || attempt >= USERNAME_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.warn("Username taken by a concurrent registration, retrying chunk (attempt {})", attempt);
+            }
+        }
+    }
+
+    private <T> String validate(T request) {
+        var violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void writeLine(Writer writer, ImportedCredentialsDto line) throws IOException {
+        writer.write(objectMapper.writeValueAsString(line));
+        writer.write('\n');
+    }
+
+    private record Pending(long index, User user) {
+    }
+}
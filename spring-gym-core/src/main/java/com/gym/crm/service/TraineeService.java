@@ -2,7 +2,14 @@ package com.gym.crm.service;
 
 import com.gym.crm.dao.TraineeDAO;
 import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dao.TrainingDAO;
+import com.gym.crm.dao.UserDAO;
+import com.gym.crm.dto.CursorPageDto;
 import com.gym.crm.dto.auth.CredentialsDto; 
+import com.gym.crm.dto.trainee.TraineeProfileResponseDto;
+import com.gym.crm.dto.trainee.TrainerInfoDto;
+import com.gym.crm.dto.training.TrainingHistoryRecord;
+import com.gym.crm.mapper.TraineeMapper;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
 
@@ -10,16 +17,23 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder; 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,22 +41,36 @@ import java.util.stream.Collectors;
 public class TraineeService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TraineeService.class);
+    private static final int USERNAME_ATTEMPTS = 3;
+    private static final Set<String> PROFILE_ASSOCIATIONS = Set.of("trainers");
     private final UserService userService;
     private final TraineeDAO traineeDAO;
     private final TrainerDAO trainerDAO;
-    private final PasswordEncoder passwordEncoder;
+    private final TrainingDAO trainingDAO;
+    private final TrainingService trainingService;
+    private final TransactionTemplate transactionTemplate;
+    private final TraineeMapper traineeMapper;
+    private final ActiveTrainerIndex activeTrainerIndex;
+    private final TrainingParticipantCache participantCache;
 
     private final Counter traineeRegistrationsCounter;
 
     @PersistenceContext
     private EntityManager entityManager;
 
-    public TraineeService(UserService userService, TraineeDAO traineeDAO, TrainerDAO trainerDAO,
-                          PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) { 
+    public TraineeService(UserService userService, TraineeDAO traineeDAO, TrainerDAO trainerDAO, TrainingDAO trainingDAO,
+                          TrainingService trainingService, TransactionTemplate transactionTemplate,
+                          TraineeMapper traineeMapper, ActiveTrainerIndex activeTrainerIndex,
+                          TrainingParticipantCache participantCache, MeterRegistry meterRegistry) { 
         this.userService = userService;
         this.traineeDAO = traineeDAO;
         this.trainerDAO = trainerDAO;
-        this.passwordEncoder = passwordEncoder;
+        this.trainingDAO = trainingDAO;
+        this.trainingService = trainingService;
+        this.transactionTemplate = transactionTemplate;
+        this.traineeMapper = traineeMapper;
+        this.activeTrainerIndex = activeTrainerIndex;
+        this.participantCache = participantCache;
 
         this.traineeRegistrationsCounter = Counter.builder("crm.trainee.registrations.total")
                 .description("Total number of new trainee registrations")
@@ -56,22 +84,67 @@ public class TraineeService {
         return traineeDAO.findAll();
     }
 
+    /**
+     * One keyset page of trainee profiles in two statements: the page itself and the trainers of every trainee on it.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TraineeProfileResponseDto> getTraineeProfilesPage(String cursor, int size) {
+        int pageSize = PageCursor.clampPageSize(size);
+        List<Trainee> trainees = traineeDAO.findPageAfter(PageCursor.decode(cursor), pageSize + 1);
+        boolean hasNext = trainees.size() > pageSize;
+        if (hasNext) {
+            trainees = trainees.subList(0, pageSize);
+        }
+
+        Map<Long, List<TrainerInfoDto>> trainersByTrainee = traineeDAO.findTrainerInfoByTraineeIds(
+                trainees.stream().map(Trainee::getId).collect(Collectors.toList()));
+        List<TraineeProfileResponseDto> items = trainees.stream()
+                .map(trainee -> traineeMapper.toTraineeProfileResponseDto(
+                        trainee, trainersByTrainee.getOrDefault(trainee.getId(), List.of())))
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? PageCursor.encode(trainees.get(trainees.size() - 1).getId()) : null;
+        return new CursorPageDto<>(items, nextCursor);
+    }
+
+    /**
+     * Profile built from projections, querying only the requested associations (see {@link ProfileFields}):
+     * <ul>
+     *     <li>no {@code trainers}: 1 statement, the profile columns from {@code users} joined to {@code trainees};</li>
+     *     <li>with {@code trainers} (the default): 2 statements, plus the trainer rows from {@code trainee_trainer}
+     *     joined to {@code trainers}, {@code users} and {@code training_types}.</li>
+     * </ul>
+     */
+    @Transactional(readOnly = true)
+    public Optional<TraineeProfileResponseDto> getTraineeProfile(String username, List<String> fields) {
+        Set<String> associations = ProfileFields.resolve(fields, PROFILE_ASSOCIATIONS);
+        return traineeDAO.findProfileByUsername(username).map(profile -> {
+            if (associations.contains("trainers")) {
+                profile.setTrainers(traineeDAO.findTrainerInfoByTraineeUsername(username));
+            }
+            return profile;
+        });
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CredentialsDto createTraineeProfile(String firstName, String lastName, LocalDate dateOfBirth, String address) {
-        Trainee trainee = new Trainee();
-        trainee.setFirstName(firstName);
-        trainee.setLastName(lastName);
-        trainee.setDateOfBirth(dateOfBirth);
-        trainee.setAddress(address);
-        trainee.setActive(true);
-
-        String username = userService.generateUsername(firstName, lastName);
+        // Hash before the transaction opens so no pooled connection sits idle behind BCrypt.
         String plainPassword = userService.generatePlainPassword(); 
         String encodedPassword = userService.encodePassword(plainPassword);
 
-        trainee.setUsername(username);
-        trainee.setPassword(encodedPassword); 
+        String username = insertWithUniqueUsername(status -> {
+            Trainee trainee = new Trainee();
+            trainee.setFirstName(firstName);
+            trainee.setLastName(lastName);
+            trainee.setDateOfBirth(dateOfBirth);
+            trainee.setAddress(address);
+            trainee.setActive(true);
+            trainee.setUsername(userService.generateUsername(firstName, lastName));
+            trainee.setPassword(encodedPassword); 
 
-        traineeDAO.save(trainee);
+            traineeDAO.save(trainee);
+            return trainee.getUsername();
+        });
         LOGGER.info("Successfully created trainee with username: {}", username);
 
         this.traineeRegistrationsCounter.increment();
@@ -82,11 +155,22 @@ public class TraineeService {
         return credentials;
     }
 
-    @Transactional(readOnly = true)
-    public boolean checkTraineeCredentials(String username, String plainPassword) {
-        Optional<Trainee> traineeOpt = traineeDAO.findByUsername(username);
-        return traineeOpt.map(trainee -> passwordEncoder.matches(plainPassword, trainee.getPassword()))
-                .orElse(false);
+    /**
+     * Runs the username allocation and insert in its own transaction, starting over with a
+     * freshly generated username when a concurrent registration claimed the same one first.
+     * Any other integrity violation is not a race and fails straight away.
+     */
+    private String insertWithUniqueUsername(TransactionCallback<String> insert) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(insert);
+            } catch (DataIntegrityViolationException e) {
+                if (!UserDAO.isUsernameConflict(e) || attempt >= USERNAME_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.warn("Username taken by a concurrent registration, retrying (attempt {})", attempt);
+            }
+        }
     }
 
     @Transactional(readOnly = true) 
@@ -94,25 +178,11 @@ public class TraineeService {
         return traineeDAO.findByUsername(username);
     }
 
-    public boolean changeTraineePassword(String username, String oldPassword, String newPassword) {
-        Optional<Trainee> traineeOpt = traineeDAO.findByUsername(username);
-        if (traineeOpt.isPresent()) {
-            Trainee trainee = traineeOpt.get();
-            if (passwordEncoder.matches(oldPassword, trainee.getPassword())) {
-                trainee.setPassword(passwordEncoder.encode(newPassword));
-                LOGGER.info("Password changed successfully for trainee: {}", username);
-                return true;
-            } else {
-                LOGGER.warn("Authentication failed for trainee (incorrect old password): {}", username);
-                return false;
-            }
-        }
-        LOGGER.warn("Trainee not found for password change: {}", username);
-        return false;
-    }
-
+    /**
+     * Loads the trainee with {@link Trainee#PROFILE_GRAPH}, since the caller maps the updated profile with its trainers.
+     */
     public Optional<Trainee> updateTraineeProfile(String username, String firstName, String lastName, LocalDate dateOfBirth, String address, boolean isActive) {
-        Optional<Trainee> traineeOpt = traineeDAO.findByUsername(username);
+        Optional<Trainee> traineeOpt = traineeDAO.findProfileGraphByUsername(username);
         if (traineeOpt.isPresent()) {
             Trainee trainee = traineeOpt.get();
             trainee.setFirstName(firstName);
@@ -139,11 +209,17 @@ public class TraineeService {
         return false;
     }
 
+    /**
+     * Trainings go first in one bulk statement (with workload updates for the future ones); removing the trainee
+     * then costs a fixed number of statements however many trainings it had.
+     */
     public boolean deleteTraineeProfileByUsername(String username) {
         Optional<Trainee> traineeOpt = traineeDAO.findByUsername(username);
         if (traineeOpt.isPresent()) {
+            int trainings = trainingService.deleteTraineeTrainings(traineeOpt.get());
             traineeDAO.delete(traineeOpt.get());
-            LOGGER.info("Trainee profile deleted for: {}", username);
+            participantCache.evictTrainee(username);
+            LOGGER.info("Trainee profile deleted for: {} ({} trainings)", username, trainings);
             return true;
         }
         LOGGER.warn("Trainee not found for deletion: {}", username);
@@ -151,60 +227,81 @@ public class TraineeService {
     }
 
     @Transactional(readOnly = true) 
-    public List<Object[]> getTraineeTrainingsList(String username, LocalDate fromDate, LocalDate toDate, String trainerName, String trainingType) {
-        String jpql = "SELECT t.trainingName, t.trainingDate, t.trainingType.trainingTypeName, t.trainingDuration, tr.username FROM Training t JOIN t.trainer tr WHERE t.trainee.username = :username";
-
-        if (fromDate != null) jpql += " AND t.trainingDate >= :fromDate";
-        if (toDate != null) jpql += " AND t.trainingDate <= :toDate";
-        if (trainerName != null && !trainerName.isEmpty()) jpql += " AND (tr.firstName = :trainerName OR tr.lastName = :trainerName)";
-        if (trainingType != null && !trainingType.isEmpty()) jpql += " AND t.trainingType.trainingTypeName = :trainingType";
-
-        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
-        query.setParameter("username", username);
-
-        if (fromDate != null) query.setParameter("fromDate", fromDate);
-        if (toDate != null) query.setParameter("toDate", toDate);
-        if (trainerName != null && !trainerName.isEmpty()) query.setParameter("trainerName", trainerName);
-        if (trainingType != null && !trainingType.isEmpty()) query.setParameter("trainingType", trainingType);
-
-        return query.getResultList();
+    public List<TrainingHistoryRecord> getTraineeTrainingsList(String username, LocalDate fromDate, LocalDate toDate,
+                                                               String trainerName, String trainingType, Integer limit) {
+        return trainingDAO.findTraineeHistory(username, fromDate, toDate, trainerName, trainingType, limit);
     }
 
-    @Transactional(readOnly = true) 
-    public List<Trainer> getUnassignedTrainersForTrainee(String traineeUsername) {
+    /**
+     * One keyset page of the active trainers not assigned to the trainee, or empty when the trainee does not exist.
+     * The page is normally picked from {@link ActiveTrainerIndex} minus the trainee's assignments and then loaded by
+     * id; while the index is being rebuilt it comes from a single anti-join query instead.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CursorPageDto<TrainerInfoDto>> getUnassignedTrainersPage(String traineeUsername, String cursor, int size) {
         Optional<Trainee> traineeOpt = traineeDAO.findByUsername(traineeUsername);
         if (traineeOpt.isEmpty()) {
             LOGGER.warn("Trainee not found for getting unassigned trainers: {}", traineeUsername);
-            return List.of();
+            return Optional.empty();
         }
-        Trainee trainee = traineeOpt.get();
-        List<Long> assignedTrainerIds = trainee.getTrainers().stream().map(Trainer::getId).collect(Collectors.toList());
-        if (assignedTrainerIds.isEmpty()) {
-            return trainerDAO.findAll(); 
+        long traineeId = traineeOpt.get().getId();
+        long afterId = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampPageSize(size);
+
+        Optional<List<Long>> idPage = activeTrainerIndex.pageAfter(afterId, traineeDAO.findTrainerIds(traineeId), pageSize + 1);
+        List<Trainer> trainers;
+        String nextCursor;
+        if (idPage.isPresent()) {
+            // The page boundary follows the index ids, not the loaded rows: a trainer deactivated on another
+            // instance since the snapshot only shortens this page instead of ending the listing
+            List<Long> ids = idPage.get();
+            boolean hasNext = ids.size() > pageSize;
+            List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+            trainers = trainerDAO.findActiveByIds(pageIds);
+            nextCursor = hasNext ? PageCursor.encode(pageIds.get(pageIds.size() - 1)) : null;
+        } else {
+            trainers = trainerDAO.findUnassignedPageAfter(traineeId, afterId, pageSize + 1);
+            boolean hasNext = trainers.size() > pageSize;
+            if (hasNext) {
+                trainers = trainers.subList(0, pageSize);
+            }
+            nextCursor = hasNext ? PageCursor.encode(trainers.get(trainers.size() - 1).getId()) : null;
         }
-        return entityManager.createQuery("SELECT t FROM Trainer t WHERE t.isActive = true AND t.id NOT IN :assignedTrainerIds", Trainer.class)
-                .setParameter("assignedTrainerIds", assignedTrainerIds)
-                .getResultList();
-    }
 
+        List<TrainerInfoDto> items = trainers.stream().map(traineeMapper::toTrainerInfoDto).collect(Collectors.toList());
+        return Optional.of(new CursorPageDto<>(items, nextCursor));
+    }
 
+    /**
+     * Applies the requested trainer list as a diff against the current assignments: unchanged pairs are left
+     * alone, so the flush only deletes and inserts the {@code trainee_trainer} rows that actually changed.
+     */
     public Optional<List<Trainer>> updateTraineeTrainersList(String username, List<String> trainerUsernames) {
         Optional<Trainee> traineeOpt = traineeDAO.findByUsername(username);
         if (traineeOpt.isPresent()) {
             Trainee trainee = traineeOpt.get();
-            List<Trainer> trainers = entityManager.createQuery("SELECT t FROM Trainer t WHERE t.isActive = true AND t.username IN :usernames", Trainer.class)
+            Set<Trainer> requested = new LinkedHashSet<>(entityManager.createQuery("SELECT t FROM Trainer t WHERE t.isActive = true AND t.username IN :usernames", Trainer.class)
                     .setParameter("usernames", trainerUsernames)
-                    .getResultList();
+                    .getResultList());
 
-            if (trainers.size() != trainerUsernames.size()) {
+            if (requested.size() != new HashSet<>(trainerUsernames).size()) {
                  LOGGER.warn("Could not find all active trainers for usernames: {}", trainerUsernames);
             }
 
-            trainee.setTrainers(trainers);
-            LOGGER.info("Updated trainer list for trainee: {}", username);
-            return Optional.of(trainee.getTrainers());
+            Set<Trainer> assigned = trainee.getTrainers();
+            int before = assigned.size();
+            assigned.retainAll(requested);
+            int removed = before - assigned.size();
+            int added = 0;
+            for (Trainer trainer : requested) {
+                if (assigned.add(trainer)) {
+                    added++;
+                }
+            }
+            LOGGER.info("Updated trainer list for trainee: {} ({} added, {} removed)", username, added, removed);
+            return Optional.of(new ArrayList<>(assigned));
         }
         LOGGER.warn("Trainee not found for trainer list update: {}", username);
         return Optional.empty();
     }
-}
\ No newline at end of file
+}
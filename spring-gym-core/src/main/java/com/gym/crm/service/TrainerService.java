@@ -1,55 +1,119 @@
 package com.gym.crm.service;
 
 import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dao.TrainingDAO;
+import com.gym.crm.dao.UserDAO;
+import com.gym.crm.dto.CursorPageDto;
 import com.gym.crm.dto.auth.CredentialsDto; 
+import com.gym.crm.dto.trainer.TraineeInfoDto;
+import com.gym.crm.dto.trainer.TrainerProfileResponseDto;
+import com.gym.crm.dto.training.TrainingHistoryRecord;
+import com.gym.crm.mapper.TrainerMapper;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.TrainingType;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TrainerService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TrainerService.class);
+    private static final int USERNAME_ATTEMPTS = 3;
+    private static final Set<String> PROFILE_ASSOCIATIONS = Set.of("trainees");
     private final UserService userService;
     private final TrainerDAO trainerDAO;
-    private final PasswordEncoder passwordEncoder; 
-
-    @PersistenceContext
-    private EntityManager entityManager;
-
-    public TrainerService(UserService userService, TrainerDAO trainerDAO, PasswordEncoder passwordEncoder) { 
+    private final TrainingDAO trainingDAO;
+    private final TransactionTemplate transactionTemplate;
+    private final TrainerMapper trainerMapper;
+    private final ActiveTrainerIndex activeTrainerIndex;
+    private final TrainingParticipantCache participantCache;
+
+    public TrainerService(UserService userService, TrainerDAO trainerDAO, TrainingDAO trainingDAO,
+                          TransactionTemplate transactionTemplate, TrainerMapper trainerMapper,
+                          ActiveTrainerIndex activeTrainerIndex,
+                          TrainingParticipantCache participantCache) { 
         this.userService = userService;
         this.trainerDAO = trainerDAO;
-        this.passwordEncoder = passwordEncoder; 
+        this.trainingDAO = trainingDAO;
+        this.transactionTemplate = transactionTemplate;
+        this.trainerMapper = trainerMapper;
+        this.activeTrainerIndex = activeTrainerIndex;
+        this.participantCache = participantCache;
     }
 
-    public CredentialsDto createTrainerProfile(String firstName, String lastName, TrainingType specialization) {
-        Trainer trainer = new Trainer();
-        trainer.setFirstName(firstName);
-        trainer.setLastName(lastName);
-        trainer.setSpecialization(specialization);
-        trainer.setActive(true);
+    @Transactional(readOnly = true)
+    public CursorPageDto<TrainerProfileResponseDto> getTrainerProfilesPage(String cursor, int size) {
+        int pageSize = PageCursor.clampPageSize(size);
+        List<Trainer> trainers = trainerDAO.findPageAfter(PageCursor.decode(cursor), pageSize + 1);
+        boolean hasNext = trainers.size() > pageSize;
+        if (hasNext) {
+            trainers = trainers.subList(0, pageSize);
+        }
+
+        Map<Long, List<TraineeInfoDto>> traineesByTrainer = trainerDAO.findTraineeInfoByTrainerIds(
+                trainers.stream().map(Trainer::getId).collect(Collectors.toList()));
+        List<TrainerProfileResponseDto> items = trainers.stream()
+                .map(trainer -> trainerMapper.toTrainerProfileResponseDto(
+                        trainer, traineesByTrainer.getOrDefault(trainer.getId(), List.of())))
+                .collect(Collectors.toList());
+
+        String nextCursor = hasNext ? PageCursor.encode(trainers.get(trainers.size() - 1).getId()) : null;
+        return new CursorPageDto<>(items, nextCursor);
+    }
+
+    /**
+     * Profile built from projections, querying only the requested associations (see {@link ProfileFields}):
+     * <ul>
+     *     <li>no {@code trainees}: 1 statement, the profile columns from {@code users} joined to {@code trainers}
+     *     and {@code training_types};</li>
+     *     <li>with {@code trainees} (the default): 2 statements, plus the trainee rows from {@code trainee_trainer}
+     *     joined to {@code trainees} and {@code users}.</li>
+     * </ul>
+     */
+    @Transactional(readOnly = true)
+    public Optional<TrainerProfileResponseDto> getTrainerProfile(String username, List<String> fields) {
+        Set<String> associations = ProfileFields.resolve(fields, PROFILE_ASSOCIATIONS);
+        return trainerDAO.findProfileByUsername(username).map(profile -> {
+            if (associations.contains("trainees")) {
+                profile.setTrainees(trainerDAO.findTraineeInfoByTrainerUsername(username));
+            }
+            return profile;
+        });
+    }
 
-        String username = userService.generateUsername(firstName, lastName);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CredentialsDto createTrainerProfile(String firstName, String lastName, TrainingType specialization) {
+        // Hash before the transaction opens so no pooled connection sits idle behind BCrypt.
         String plainPassword = userService.generatePlainPassword(); 
         String encodedPassword = userService.encodePassword(plainPassword);
 
-        trainer.setUsername(username);
-        trainer.setPassword(encodedPassword); 
-
-        trainerDAO.save(trainer);
+        String username = insertWithUniqueUsername(status -> {
+            Trainer trainer = new Trainer();
+            trainer.setFirstName(firstName);
+            trainer.setLastName(lastName);
+            trainer.setSpecialization(specialization);
+            trainer.setActive(true);
+            trainer.setUsername(userService.generateUsername(firstName, lastName));
+            trainer.setPassword(encodedPassword); 
+
+            trainerDAO.save(trainer);
+            return trainer.getUsername();
+        });
+        activeTrainerIndex.invalidate();
         LOGGER.info("Successfully created trainer with username: {}", username);
 
         CredentialsDto credentials = new CredentialsDto();
@@ -58,11 +122,22 @@ public class TrainerService {
         return credentials;
     }
 
-    @Transactional(readOnly = true) 
-    public boolean checkTrainerCredentials(String username, String plainPassword) {
-        Optional<Trainer> trainerOpt = trainerDAO.findByUsername(username);
-        return trainerOpt.map(trainer -> passwordEncoder.matches(plainPassword, trainer.getPassword()))
-                .orElse(false);
+    /**
+     * Runs the username allocation and insert in its own transaction, starting over with a
+     * freshly generated username when a concurrent registration claimed the same one first.
+     * Any other integrity violation is not a race and fails straight away.
+     */
+    private String insertWithUniqueUsername(TransactionCallback<String> insert) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(insert);
+            } catch (DataIntegrityViolationException e) {
+                if (!UserDAO.isUsernameConflict(e) || attempt >= USERNAME_ATTEMPTS) {
+                    throw e;
+                }
+                LOGGER.warn("Username taken by a concurrent registration, retrying (attempt {})", attempt);
+            }
+        }
     }
 
     @Transactional(readOnly = true) 
@@ -70,31 +145,21 @@ public class TrainerService {
         return trainerDAO.findByUsername(username);
     }
 
-    public boolean changeTrainerPassword(String username, String oldPassword, String newPassword) {
-        Optional<Trainer> trainerOpt = trainerDAO.findByUsername(username);
-        if (trainerOpt.isPresent()) {
-            Trainer trainer = trainerOpt.get();
-            if (passwordEncoder.matches(oldPassword, trainer.getPassword())) {
-                trainer.setPassword(passwordEncoder.encode(newPassword));
-                LOGGER.info("Password changed successfully for trainer: {}", username);
-                return true;
-            } else {
-                LOGGER.warn("Authentication failed for trainer (incorrect old password): {}", username);
-                return false;
-            }
-        }
-        LOGGER.warn("Trainer not found for password change: {}", username);
-        return false;
-    }
-
+    /**
+     * Loads the trainer with {@link Trainer#PROFILE_GRAPH}, since the caller maps the updated profile with its trainees.
+     */
     public Optional<Trainer> updateTrainerProfile(String username, String firstName, String lastName, TrainingType specialization, boolean isActive) {
-        Optional<Trainer> trainerOpt = trainerDAO.findByUsername(username);
+        Optional<Trainer> trainerOpt = trainerDAO.findProfileGraphByUsername(username);
         if (trainerOpt.isPresent()) {
             Trainer trainer = trainerOpt.get();
             trainer.setFirstName(firstName);
             trainer.setLastName(lastName);
             trainer.setSpecialization(specialization); 
-            trainer.setActive(isActive);
+            if (trainer.isActive() != isActive) {
+                trainer.setActive(isActive);
+                activeTrainerIndex.invalidate();
+            }
+            participantCache.evictTrainer(username);
             LOGGER.info("Trainer profile updated for: {}", username);
             return Optional.of(trainer);
         }
@@ -106,7 +171,11 @@ public class TrainerService {
         Optional<Trainer> trainerOpt = trainerDAO.findByUsername(username);
         if (trainerOpt.isPresent()) {
             Trainer trainer = trainerOpt.get();
-            trainer.setActive(isActive);
+            if (trainer.isActive() != isActive) {
+                trainer.setActive(isActive);
+                activeTrainerIndex.invalidate();
+                participantCache.evictTrainer(username);
+            }
             LOGGER.info("Trainer {} status set to: {}", username, isActive ? "ACTIVE" : "INACTIVE");
             return true;
         }
@@ -115,20 +184,8 @@ public class TrainerService {
     }
 
     @Transactional(readOnly = true)
-    public List<Object[]> getTrainerTrainingsList(String username, LocalDate fromDate, LocalDate toDate, String traineeName) {
-        String jpql = "SELECT t.trainingName, t.trainingDate, t.trainingType.trainingTypeName, t.trainingDuration, te.username FROM Training t JOIN t.trainee te WHERE t.trainer.username = :username";
-
-        if (fromDate != null) jpql += " AND t.trainingDate >= :fromDate";
-        if (toDate != null) jpql += " AND t.trainingDate <= :toDate";
-        if (traineeName != null && !traineeName.isEmpty()) jpql += " AND (te.firstName = :traineeName OR te.lastName = :traineeName)";
-
-        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
-        query.setParameter("username", username);
-
-        if (fromDate != null) query.setParameter("fromDate", fromDate);
-        if (toDate != null) query.setParameter("toDate", toDate);
-        if (traineeName != null && !traineeName.isEmpty()) query.setParameter("traineeName", traineeName);
-
-        return query.getResultList();
+    public List<TrainingHistoryRecord> getTrainerTrainingsList(String username, LocalDate fromDate, LocalDate toDate,
+                                                               String traineeName, Integer limit) {
+        return trainingDAO.findTrainerHistory(username, fromDate, toDate, traineeName, limit);
     }
 }
\ No newline at end of file
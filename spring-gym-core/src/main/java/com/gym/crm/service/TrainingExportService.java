@@ -0,0 +1,122 @@
+package com.gym.crm.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.dao.TrainingDAO;
+import com.gym.crm.dto.training.TrainingHistoryRecord;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes training history straight from a forward-only result to the response, so an export of any
+ * length holds only one fetch batch and one write buffer in memory.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TrainingExportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingExportService.class);
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final String CSV_HEADER = "trainingName,trainingDate,trainingType,trainingDuration,partnerUsername";
+
+    private final TrainingDAO trainingDAO;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TrainingExportService(TrainingDAO trainingDAO, ObjectMapper objectMapper,
+                                 @Value("${training.export.fetch-size}") int fetchSize,
+                                 @Value("${training.export.clear-interval}") int clearInterval) {
+        this.trainingDAO = trainingDAO;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    public long exportTraineeTrainings(String username, LocalDate fromDate, LocalDate toDate, String trainerName,
+                                       String trainingType, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<TrainingHistoryRecord> rows =
+                     trainingDAO.streamTraineeHistory(username, fromDate, toDate, trainerName, trainingType, fetchSize)) {
+            long written = write(rows, format, out);
+            LOGGER.info("Exported {} trainings for trainee {} as {}", written, username, format);
+            return written;
+        }
+    }
+
+    public long exportTrainerTrainings(String username, LocalDate fromDate, LocalDate toDate, String traineeName,
+                                       ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<TrainingHistoryRecord> rows =
+                     trainingDAO.streamTrainerHistory(username, fromDate, toDate, traineeName, fetchSize)) {
+            long written = write(rows, format, out);
+            LOGGER.info("Exported {} trainings for trainer {} as {}", written, username, format);
+            return written;
+        }
+    }
+
+    private long write(Stream<TrainingHistoryRecord> rows, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        Iterator<TrainingHistoryRecord> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            TrainingHistoryRecord row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, row);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            if (++count % clearInterval == 0) {
+                // Detach periodically so nothing loaded along the way accumulates over a long export.
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, TrainingHistoryRecord row) throws IOException {
+        writer.write(csv(row.trainingName()));
+        writer.write(',');
+        writer.write(String.valueOf(row.trainingDate()));
+        writer.write(',');
+        writer.write(csv(row.trainingType()));
+        writer.write(',');
+        writer.write(String.valueOf(row.trainingDuration()));
+        writer.write(',');
+        writer.write(csv(row.partnerUsername()));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,86 @@
+package com.gym.crm.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.gym.crm.dao.TraineeDAO;
+import com.gym.crm.dao.TrainerDAO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Username to id for trainees, and the trainer fields a workload message carries, so adding a training can attach
+ * both users by reference instead of loading them.
+ * <p>
+ * A miss costs one projection query; unknown usernames are not cached. Local changes evict the entry now and again
+ * after their transaction completes, like {@link ActiveTrainerIndex}; changes made on other instances are seen
+ * within {@code training.participant-cache.max-age}.
+ */
+@Component
+public class TrainingParticipantCache {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final TraineeDAO traineeDAO;
+    private final TrainerDAO trainerDAO;
+    private final Cache<String, Long> traineeIds;
+    private final Cache<String, TrainerDAO.TrainerSummary> trainers;
+
+    public TrainingParticipantCache(TraineeDAO traineeDAO, TrainerDAO trainerDAO,
+                                    @Value("${training.participant-cache.max-age}") Duration maxAge) {
+        this.traineeDAO = traineeDAO;
+        this.trainerDAO = trainerDAO;
+        this.traineeIds = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).expireAfterWrite(maxAge).build();
+        this.trainers = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).expireAfterWrite(maxAge).build();
+    }
+
+    public Optional<Long> traineeId(String username) {
+        Long id = traineeIds.getIfPresent(username);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Long> loaded = traineeDAO.findIdByUsername(username);
+        loaded.ifPresent(value -> traineeIds.put(username, value));
+        return loaded;
+    }
+
+    public Optional<TrainerDAO.TrainerSummary> trainer(String username) {
+        TrainerDAO.TrainerSummary summary = trainers.getIfPresent(username);
+        if (summary != null) {
+            return Optional.of(summary);
+        }
+        Optional<TrainerDAO.TrainerSummary> loaded = trainerDAO.findSummaryByUsername(username);
+        loaded.ifPresent(value -> trainers.put(username, value));
+        return loaded;
+    }
+
+    /**
+     * For trainee deletion.
+     */
+    public void evictTrainee(String username) {
+        evict(traineeIds, username);
+    }
+
+    /**
+     * For changes to a trainer's name or active flag.
+     */
+    public void evictTrainer(String username) {
+        evict(trainers, username);
+    }
+
+    private static void evict(Cache<String, ?> cache, String username) {
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -4,6 +4,10 @@ import com.gym.crm.dao.TraineeDAO;
 import com.gym.crm.dao.TrainerDAO;
 import com.gym.crm.dao.TrainingDAO;
 import com.gym.crm.dto.WorkloadRequest;
+import com.gym.crm.dto.training.AddTrainingRequestDto;
+import com.gym.crm.dto.training.BatchTrainingItemResultDto;
+import com.gym.crm.dto.training.BatchTrainingResponseDto;
+import com.gym.crm.dto.trainer.FutureTrainingsCancellationDto;
 import com.gym.crm.messaging.WorkloadMessageProducer;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
@@ -15,7 +19,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,33 +37,42 @@ public class TrainingService {
     private final TrainingDAO trainingDAO;
     private final TraineeDAO traineeDAO;
     private final TrainerDAO trainerDAO;
+    private final TrainingTypeService trainingTypeService;
     private final WorkloadMessageProducer messageProducer;
+    private final TrainingParticipantCache participantCache;
 
-    public TrainingService(TrainingDAO trainingDAO, TraineeDAO traineeDAO,
-                           TrainerDAO trainerDAO, WorkloadMessageProducer messageProducer) {
+    public TrainingService(TrainingDAO trainingDAO, TraineeDAO traineeDAO, TrainerDAO trainerDAO,
+                           TrainingTypeService trainingTypeService, WorkloadMessageProducer messageProducer,
+                           TrainingParticipantCache participantCache) {
         this.trainingDAO = trainingDAO;
         this.traineeDAO = traineeDAO;
         this.trainerDAO = trainerDAO;
+        this.trainingTypeService = trainingTypeService;
         this.messageProducer = messageProducer;
+        this.participantCache = participantCache;
     }
 
+    /**
+     * Both users are resolved to ids through {@link TrainingParticipantCache} and attached as uninitialized
+     * references, so with a warm cache the only statement is the training insert. The workload message is built
+     * from the cached trainer fields.
+     */
     public Training addTraining(String traineeUsername, String trainerUsername, String trainingName, TrainingType trainingType, 
     LocalDate trainingDate, int duration) {
         
-        Optional<Trainee> traineeOpt = traineeDAO.findByUsername(traineeUsername);
-        Optional<Trainer> trainerOpt = trainerDAO.findByUsername(trainerUsername);
+        Optional<Long> traineeId = participantCache.traineeId(traineeUsername);
+        Optional<TrainerDAO.TrainerSummary> trainerOpt = participantCache.trainer(trainerUsername);
 
-        if (traineeOpt.isEmpty() || trainerOpt.isEmpty()) {
+        if (traineeId.isEmpty() || trainerOpt.isEmpty()) {
             LOGGER.error("Trainee or Trainer not found. Cannot create training.");
             return null;
         }
 
-        Trainee trainee = traineeOpt.get();
-        Trainer trainer = trainerOpt.get();
+        TrainerDAO.TrainerSummary trainer = trainerOpt.get();
 
         Training training = new Training();
-        training.setTrainee(trainee);
-        training.setTrainer(trainer);
+        training.setTrainee(traineeDAO.getReference(traineeId.get()));
+        training.setTrainer(trainerDAO.getReference(trainer.id()));
         training.setTrainingName(trainingName);
         training.setTrainingType(trainingType);
         training.setTrainingDate(trainingDate);
@@ -61,21 +81,141 @@ public class TrainingService {
         trainingDAO.save(training);
 
         // Send message to workload service (async via ActiveMQ)
-        sendWorkloadUpdate(trainer, trainingDate, duration, WorkloadRequest.ActionType.ADD);
+        sendWorkloadUpdate(trainer.username(), trainer.firstName(), trainer.lastName(), trainer.active(),
+                trainingDate, duration, WorkloadRequest.ActionType.ADD);
 
         LOGGER.info("Successfully created training '{}' for trainee {}", trainingName, traineeUsername);
 
         return training;
     }
 
+    /**
+     * Creates many trainings at once: trainees and trainers are resolved in one query each, types come from the
+     * in-memory registry, rows are inserted with JDBC batching and workload updates go out once per trainer and
+     * month. Entries with unknown references are rejected individually; the rest of the batch is still created.
+     */
+    public BatchTrainingResponseDto addTrainings(List<AddTrainingRequestDto> requests) {
+        Set<String> traineeUsernames = requests.stream()
+                .map(AddTrainingRequestDto::getTraineeUsername).collect(Collectors.toSet());
+        Set<String> trainerUsernames = requests.stream()
+                .map(AddTrainingRequestDto::getTrainerUsername).collect(Collectors.toSet());
+        Map<String, Long> traineeIds = traineeDAO.findIdsByUsernames(traineeUsernames);
+        Map<String, Trainer> trainers = trainerDAO.findByUsernames(trainerUsernames).stream()
+                .collect(Collectors.toMap(Trainer::getUsername, Function.identity()));
+
+        List<TrainingDAO.NewTraining> rows = new ArrayList<>(requests.size());
+        List<BatchTrainingItemResultDto> results = new ArrayList<>(requests.size());
+        MonthlyWorkloadDelta.Accumulator workload = new MonthlyWorkloadDelta.Accumulator();
+
+        for (int index = 0; index < requests.size(); index++) {
+            AddTrainingRequestDto request = requests.get(index);
+            Long traineeId = traineeIds.get(request.getTraineeUsername());
+            Trainer trainer = trainers.get(request.getTrainerUsername());
+            Optional<TrainingType> trainingType = trainingTypeService.findById(request.getTrainingTypeId());
+
+            String rejection = traineeId == null ? "Trainee not found: " + request.getTraineeUsername()
+                    : trainer == null ? "Trainer not found: " + request.getTrainerUsername()
+                    : trainingType.isEmpty() ? "TrainingType not found with ID: " + request.getTrainingTypeId()
+                    : null;
+            if (rejection != null) {
+                results.add(new BatchTrainingItemResultDto(index, BatchTrainingItemResultDto.Status.REJECTED, rejection));
+                continue;
+            }
+
+            rows.add(new TrainingDAO.NewTraining(traineeId, trainer.getId(), trainingType.get().getId(),
+                    request.getTrainingName(), request.getTrainingDate(), request.getTrainingDuration()));
+            workload.add(trainer, request.getTrainingDate(), request.getTrainingDuration());
+            results.add(new BatchTrainingItemResultDto(index, BatchTrainingItemResultDto.Status.CREATED, null));
+        }
+
+        trainingDAO.insertAll(rows);
+        publishWorkloadDeltas(workload.deltas(), WorkloadRequest.ActionType.ADD);
+
+        LOGGER.info("Batch created {} of {} trainings", rows.size(), requests.size());
+        return new BatchTrainingResponseDto(rows.size(), requests.size() - rows.size(), results);
+    }
+
+    /**
+     * Cancels every training the trainer has after today: one statement reads and locks the rows, one deletes them
+     * by id, and the workload service gets one DELETE per month instead of one per training. A training added
+     * concurrently is not locked and stays, together with the workload it added.
+     */
+    public Optional<FutureTrainingsCancellationDto> cancelFutureTrainings(String trainerUsername) {
+        long start = System.nanoTime();
+        Optional<Trainer> trainerOpt = trainerDAO.findByUsername(trainerUsername);
+        if (trainerOpt.isEmpty()) {
+            LOGGER.warn("Trainer not found for cancelling future trainings: {}", trainerUsername);
+            return Optional.empty();
+        }
+        Trainer trainer = trainerOpt.get();
+        LocalDate today = LocalDate.now();
+
+        List<TrainingDAO.LockedTraining> trainings = trainingDAO.lockTrainerTrainingsAfter(trainer.getId(), today);
+        int cancelled = trainingDAO.deleteTrainerTrainings(trainer.getId(), ids(trainings));
+
+        MonthlyWorkloadDelta.Accumulator workload = new MonthlyWorkloadDelta.Accumulator();
+        trainings.forEach(training -> workload.add(trainer, training.trainingDate(), training.trainingDuration()));
+        List<MonthlyWorkloadDelta> deltas = workload.deltas();
+        publishWorkloadDeltas(deltas, WorkloadRequest.ActionType.DELETE);
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOGGER.info("Cancelled {} future trainings of trainer {} in {} ms ({} workload updates)",
+                cancelled, trainerUsername, elapsedMillis, deltas.size());
+        return Optional.of(new FutureTrainingsCancellationDto(trainerUsername, cancelled, deltas.size(), elapsedMillis));
+    }
+
+    /**
+     * Deletes every training of a trainee: one statement reads and locks the rows, one deletes them by id.
+     * Trainings after today come off their trainers' workload first, one DELETE per trainer and month, with all
+     * those trainers loaded in one query; past months keep the work that was done.
+     *
+     * @return the number of trainings deleted
+     */
+    public int deleteTraineeTrainings(Trainee trainee) {
+        List<TrainingDAO.LockedTraining> trainings = trainingDAO.lockTraineeTrainings(trainee.getId());
+        int deleted = trainingDAO.deleteTraineeTrainings(trainee.getId(), ids(trainings));
+
+        LocalDate today = LocalDate.now();
+        Map<Long, List<TrainingDAO.LockedTraining>> futureByTrainer = trainings.stream()
+                .filter(training -> training.trainingDate().isAfter(today))
+                .collect(Collectors.groupingBy(TrainingDAO.LockedTraining::trainerId));
+        MonthlyWorkloadDelta.Accumulator workload = new MonthlyWorkloadDelta.Accumulator();
+        for (Trainer trainer : trainerDAO.findByIds(futureByTrainer.keySet())) {
+            futureByTrainer.get(trainer.getId()).forEach(training ->
+                    workload.add(trainer, training.trainingDate(), training.trainingDuration()));
+        }
+        List<MonthlyWorkloadDelta> deltas = workload.deltas();
+        publishWorkloadDeltas(deltas, WorkloadRequest.ActionType.DELETE);
+
+        LOGGER.info("Deleted {} trainings of trainee {} ({} workload updates)", deleted, trainee.getUsername(), deltas.size());
+        return deleted;
+    }
+
+    private static List<Long> ids(List<TrainingDAO.LockedTraining> trainings) {
+        return trainings.stream().map(TrainingDAO.LockedTraining::id).toList();
+    }
+
+    void publishWorkloadDeltas(List<MonthlyWorkloadDelta> deltas, WorkloadRequest.ActionType actionType) {
+        for (MonthlyWorkloadDelta delta : deltas) {
+            sendWorkloadUpdate(delta.trainer(), delta.trainingDate(), delta.duration(), actionType);
+        }
+    }
+
     private void sendWorkloadUpdate(Trainer trainer, LocalDate trainingDate,
                                     int duration, WorkloadRequest.ActionType actionType) {
+        sendWorkloadUpdate(trainer.getUsername(), trainer.getFirstName(), trainer.getLastName(), trainer.isActive(),
+                trainingDate, duration, actionType);
+    }
+
+    private void sendWorkloadUpdate(String trainerUsername, String trainerFirstName, String trainerLastName,
+                                    boolean trainerActive, LocalDate trainingDate,
+                                    int duration, WorkloadRequest.ActionType actionType) {
         
         WorkloadRequest workloadRequest = WorkloadRequest.builder()
-                .trainerUsername(trainer.getUsername())
-                .trainerFirstName(trainer.getFirstName())
-                .trainerLastName(trainer.getLastName())
-                .isActive(trainer.isActive())
+                .trainerUsername(trainerUsername)
+                .trainerFirstName(trainerFirstName)
+                .trainerLastName(trainerLastName)
+                .isActive(trainerActive)
                 .trainingDate(trainingDate)
                 .trainingDuration(duration)
                 .actionType(actionType)
@@ -2,27 +2,74 @@ package com.gym.crm.service;
 
 import com.gym.crm.dao.TrainingTypeDAO;
 import com.gym.crm.model.TrainingType;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Training types are reference data: they are read once into an immutable snapshot and served from memory.
+ * {@link #refresh()} reloads the snapshot (and drops the second-level cache region) after the table changes.
+ */
 @Service
-@Transactional(readOnly = true)
 public class TrainingTypeService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingTypeService.class);
+
     private final TrainingTypeDAO trainingTypeDAO;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile Registry registry;
 
-    public TrainingTypeService(TrainingTypeDAO trainingTypeDAO) {
+    public TrainingTypeService(TrainingTypeDAO trainingTypeDAO, EntityManagerFactory entityManagerFactory,
+                               PlatformTransactionManager transactionManager) {
         this.trainingTypeDAO = trainingTypeDAO;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     public List<TrainingType> findAll() {
-        return trainingTypeDAO.findAll();
+        return registry().all();
     }
     
     public Optional<TrainingType> findById(Long id) {
-        return trainingTypeDAO.findById(id);
+        return Optional.ofNullable(registry().byId().get(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized int refresh() {
+        entityManagerFactory.getCache().evict(TrainingType.class);
+        List<TrainingType> types = List.copyOf(trainingTypeDAO.findAll());
+        registry = new Registry(types, types.stream()
+                .collect(Collectors.toUnmodifiableMap(TrainingType::getId, Function.identity())));
+        LOGGER.info("Loaded {} training types into the registry", types.size());
+        return types.size();
+    }
+
+    private Registry registry() {
+        Registry current = registry;
+        if (current == null) {
+            // A self-call bypasses the proxy and with it refresh()'s @Transactional
+            readOnlyTransaction.execute(status -> refresh());
+            current = registry;
+        }
+        return current;
+    }
+
+    private record Registry(List<TrainingType> all, Map<Long, TrainingType> byId) {
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,106 @@
 package com.gym.crm.service;
 
-import com.gym.crm.dao.TraineeDAO;
-import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dao.UserDAO;
+import com.gym.crm.dto.auth.UserCredentialsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class UserService {
 
-    private final TraineeDAO traineeDAO;
-    private final TrainerDAO trainerDAO;
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
+
+    private final UserDAO userDAO;
     private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(TraineeDAO traineeDAO, TrainerDAO trainerDAO, PasswordEncoder passwordEncoder) {
-        this.traineeDAO = traineeDAO;
-        this.trainerDAO = trainerDAO;
+    public UserService(UserDAO userDAO, PasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate) {
+        this.userDAO = userDAO;
         this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    /**
+     * Returns {@code firstname.lastname}, or that name followed by one more than the highest
+     * serial already in use. Costs one query no matter how many duplicates exist; two concurrent
+     * registrations can still pick the same name, so callers retry on the unique constraint.
+     */
     public String generateUsername(String firstName, String lastName) {
-        String baseUsername = firstName.toLowerCase() + "." + lastName.toLowerCase();
-        String finalUsername = baseUsername;
-        int serial = 1;
+        String baseUsername = baseUsername(firstName, lastName);
+        long highestSerial = -1;
+
+        for (String taken : userDAO.findUsernamesStartingWith(baseUsername)) {
+            highestSerial = Math.max(highestSerial, serialOf(taken.substring(baseUsername.length())));
+        }
+        return withSerial(baseUsername, highestSerial + 1);
+    }
+
+    public String baseUsername(String firstName, String lastName) {
+        return firstName.toLowerCase() + "." + lastName.toLowerCase();
+    }
 
-        while (isUsernameTaken(finalUsername)) {
-            finalUsername = baseUsername + serial;
-            serial++;
+    /**
+     * {@link #generateUsername} for a whole batch: one lookup for all base names, then serials are handed out
+     * in order, so repeats of a base name inside the batch get distinct usernames too.
+     */
+    public List<String> generateUsernames(List<String> baseUsernames) {
+        Map<String, Long> nextSerial = new HashMap<>();
+        for (String baseUsername : baseUsernames) {
+            nextSerial.put(baseUsername, 0L);
+        }
+        for (String taken : userDAO.findUsernamesStartingWithAny(nextSerial.keySet())) {
+            // A taken name can match several bases (john.smith and john.smith1 both prefix john.smith12)
+            for (int end = taken.length(); end > 0; end--) {
+                String candidate = taken.substring(0, end);
+                Long next = nextSerial.get(candidate);
+                if (next != null) {
+                    nextSerial.put(candidate, Math.max(next, serialOf(taken.substring(end)) + 1));
+                }
+            }
         }
-        return finalUsername;
+
+        List<String> usernames = new ArrayList<>(baseUsernames.size());
+        for (String baseUsername : baseUsernames) {
+            long serial = nextSerial.merge(baseUsername, 1L, Long::sum) - 1;
+            usernames.add(withSerial(baseUsername, serial));
+        }
+        return usernames;
+    }
+
+    private static String withSerial(String baseUsername, long serial) {
+        return serial == 0 ? baseUsername : baseUsername + serial;
     }
 
-    private boolean isUsernameTaken(String username) {
-        return traineeDAO.findByUsername(username).isPresent() || trainerDAO.findByUsername(username).isPresent();
+    /**
+     * 0 for the bare base name, the number for a numeric suffix, -1 for anything else
+     * (e.g. {@code john.smithson} when the base is {@code john.smith}).
+     */
+    private static long serialOf(String suffix) {
+        if (suffix.isEmpty()) {
+            return 0;
+        }
+        if (suffix.length() > 18 || suffix.charAt(0) == '0') {
+            return -1;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            char c = suffix.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(suffix);
     }
 
     public String generatePlainPassword() {
@@ -49,4 +116,38 @@ public class UserService {
     public String encodePassword(String plainPassword) {
         return passwordEncoder.encode(plainPassword);
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the stored hash, checks the old password and hashes the new one with no connection held; only the
+     * final write runs in a transaction. The write is skipped when the hash changed in between, so a concurrent
+     * password change is not overwritten.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean changePassword(String username, String oldPassword, String newPassword) {
+        Optional<UserCredentialsDto> credentials = userDAO.findCredentialsByUsername(username);
+        if (credentials.isEmpty()) {
+            LOGGER.warn("User not found for password change: {}", username);
+            return false;
+        }
+        String storedHash = credentials.get().getPassword();
+        if (!passwordEncoder.matches(oldPassword, storedHash)) {
+            LOGGER.warn("Authentication failed (incorrect old password): {}", username);
+            return false;
+        }
+        String encodedPassword = passwordEncoder.encode(newPassword);
+
+        Boolean changed = transactionTemplate.execute(status -> userDAO.findByUsername(username)
+                .filter(user -> storedHash.equals(user.getPassword()))
+                .map(user -> {
+                    user.setPassword(encodedPassword);
+                    return true;
+                })
+                .orElse(false));
+        if (!Boolean.TRUE.equals(changed)) {
+            LOGGER.warn("Password changed concurrently, not applied: {}", username);
+            return false;
+        }
+        LOGGER.info("Password changed successfully for: {}", username);
+        return true;
+    }
+}
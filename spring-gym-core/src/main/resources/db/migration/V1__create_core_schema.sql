@@ -0,0 +1,56 @@
+-- Core schema, matching the JPA mappings (validated at startup with ddl-auto=validate)
+
+CREATE TABLE training_types (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    training_type_name VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_training_types PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    username   VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    is_active  BOOLEAN      NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE trainees (
+    id            BIGINT NOT NULL,
+    date_of_birth DATE,
+    address       VARCHAR(255),
+    CONSTRAINT pk_trainees PRIMARY KEY (id),
+    CONSTRAINT fk_trainees_user FOREIGN KEY (id) REFERENCES users (id)
+);
+
+CREATE TABLE trainers (
+    id                BIGINT NOT NULL,
+    specialization_id BIGINT,
+    CONSTRAINT pk_trainers PRIMARY KEY (id),
+    CONSTRAINT fk_trainers_user FOREIGN KEY (id) REFERENCES users (id),
+    CONSTRAINT fk_trainers_specialization FOREIGN KEY (specialization_id) REFERENCES training_types (id)
+);
+
+CREATE TABLE trainee_trainer (
+    trainee_id BIGINT NOT NULL,
+    trainer_id BIGINT NOT NULL,
+    CONSTRAINT pk_trainee_trainer PRIMARY KEY (trainee_id, trainer_id),
+    CONSTRAINT fk_trainee_trainer_trainee FOREIGN KEY (trainee_id) REFERENCES trainees (id),
+    CONSTRAINT fk_trainee_trainer_trainer FOREIGN KEY (trainer_id) REFERENCES trainers (id)
+);
+
+CREATE TABLE trainings (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    trainee_id        BIGINT       NOT NULL,
+    trainer_id        BIGINT       NOT NULL,
+    training_type_id  BIGINT       NOT NULL,
+    training_name     VARCHAR(255) NOT NULL,
+    training_date     DATE         NOT NULL,
+    training_duration INTEGER      NOT NULL,
+    CONSTRAINT pk_trainings PRIMARY KEY (id),
+    CONSTRAINT fk_trainings_trainee FOREIGN KEY (trainee_id) REFERENCES trainees (id),
+    CONSTRAINT fk_trainings_trainer FOREIGN KEY (trainer_id) REFERENCES trainers (id),
+    CONSTRAINT fk_trainings_training_type FOREIGN KEY (training_type_id) REFERENCES training_types (id)
+);
@@ -0,0 +1,11 @@
+-- Training history: WHERE trainee_id/trainer_id = ? AND training_date BETWEEN ? AND ? ORDER BY training_date DESC.
+-- The leading id column narrows to one user, the date column serves both the range and the ordering.
+CREATE INDEX idx_trainings_trainee_date ON trainings (trainee_id, training_date);
+CREATE INDEX idx_trainings_trainer_date ON trainings (trainer_id, training_date);
+
+-- Foreign key lookups not covered by the composite indexes above
+CREATE INDEX idx_trainings_training_type ON trainings (training_type_id);
+CREATE INDEX idx_trainers_specialization ON trainers (specialization_id);
+
+-- The primary key (trainee_id, trainer_id) serves a trainee's assignments; this serves a trainer's trainees.
+CREATE INDEX idx_trainee_trainer_trainer ON trainee_trainer (trainer_id, trainee_id);
@@ -31,6 +31,6 @@ INSERT INTO trainee_trainer (trainee_id, trainer_id) VALUES (3, 1);  -- Mike wit
 INSERT INTO trainee_trainer (trainee_id, trainer_id) VALUES (3, 2);  -- Mike with Jane
 INSERT INTO trainee_trainer (trainee_id, trainer_id) VALUES (4, 1);  -- Sarah with John
 
--- Reset sequences to avoid ID conflicts with new inserts
+-- Move identities past the seeded ids
 ALTER TABLE users ALTER COLUMN id RESTART WITH 100;
 ALTER TABLE training_types ALTER COLUMN id RESTART WITH 100;
@@ -0,0 +1,15 @@
+-- Hibernate allocates ids from these sequences 50 at a time (pooled optimizer), so inserts can be batched.
+-- A sequence value is the top of a block of 50; starting at MAX(id) + 50 makes the first block begin right
+-- after the highest existing id. The columns default to the sequence so plain JDBC inserts keep working.
+
+CREATE SEQUENCE training_types_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM training_types) INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users) INCREMENT BY 50;
+CREATE SEQUENCE trainings_seq START WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM trainings) INCREMENT BY 50;
+
+ALTER TABLE training_types ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE trainings ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE training_types ALTER COLUMN id SET DEFAULT NEXT VALUE FOR training_types_seq;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+ALTER TABLE trainings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR trainings_seq;
@@ -0,0 +1,21 @@
+-- Expand step for the SINGLE_TABLE user layout (profile single-table-users, META-INF/orm-single-table-users.xml).
+-- users gets a discriminator and copies of the subtype columns; trainees and trainers stay in place so either
+-- layout can serve reads. UserLayoutShadowWriter keeps the inactive copy in step until a later migration drops it.
+
+ALTER TABLE users ADD COLUMN user_type VARCHAR(16);
+ALTER TABLE users ADD COLUMN date_of_birth DATE;
+ALTER TABLE users ADD COLUMN address VARCHAR(255);
+ALTER TABLE users ADD COLUMN specialization_id BIGINT;
+
+MERGE INTO users u USING trainees t ON u.id = t.id
+    WHEN MATCHED THEN UPDATE SET u.user_type = 'TRAINEE', u.date_of_birth = t.date_of_birth, u.address = t.address;
+MERGE INTO users u USING trainers t ON u.id = t.id
+    WHEN MATCHED THEN UPDATE SET u.user_type = 'TRAINER', u.specialization_id = t.specialization_id;
+
+ALTER TABLE users ALTER COLUMN user_type SET NOT NULL;
+ALTER TABLE users ADD CONSTRAINT fk_users_specialization FOREIGN KEY (specialization_id) REFERENCES training_types (id);
+CREATE INDEX idx_users_specialization ON users (specialization_id);
+
+-- trainee_trainer and trainings keep their foreign keys to trainees and trainers, so a trainee id can never be
+-- stored as a trainer and the reverse, under either layout. Under SINGLE_TABLE, UserLayoutShadowWriter therefore
+-- writes a new user's subtype row during the flush, before any relation row can reference it.
@@ -2,9 +2,9 @@ package com.gym.crm.cucumber;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.gym.crm.dao.TraineeDAO;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.security.JwtUtil;
+import com.gym.crm.service.TraineeService;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.Before;
 import io.cucumber.java.en.Given;
@@ -36,7 +36,7 @@ public class TraineeSteps {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private TraineeDAO traineeDAO;
+    private TraineeService traineeService;
 
     private MvcResult lastResult;
     private String currentToken;
@@ -59,7 +59,7 @@ public class TraineeSteps {
     @Given("the gym service is running")
     public void theGymServiceIsRunning() {
         // Application context is loaded by Spring
-        // Training types and users are pre-loaded via data.sql
+        // Training types and users are pre-loaded by the seed migration
     }
 
     @Given("I am authenticated as {string}")
@@ -113,7 +113,7 @@ public class TraineeSteps {
         Map<String, Object> request = new HashMap<>();
 
         // For updates, we need to provide required fields
-        Trainee trainee = traineeDAO.findByUsername(username).orElse(null);
+        Trainee trainee = traineeService.selectTraineeProfileByUsername(username).orElse(null);
         if (trainee != null) {
             request.put("firstName", data.getOrDefault("firstName", trainee.getFirstName()));
             request.put("lastName", data.getOrDefault("lastName", trainee.getLastName()));
@@ -227,14 +227,14 @@ public class TraineeSteps {
 
     @Then("the trainee {string} should be inactive")
     public void theTraineeShouldBeInactive(String username) {
-        Trainee trainee = traineeDAO.findByUsername(username).orElse(null);
+        Trainee trainee = traineeService.selectTraineeProfileByUsername(username).orElse(null);
         assertThat(trainee).isNotNull();
         assertThat(trainee.isActive()).isFalse();
     }
 
     @Then("the trainee {string} should be active")
     public void theTraineeShouldBeActive(String username) {
-        Trainee trainee = traineeDAO.findByUsername(username).orElse(null);
+        Trainee trainee = traineeService.selectTraineeProfileByUsername(username).orElse(null);
         assertThat(trainee).isNotNull();
         assertThat(trainee.isActive()).isTrue();
     }
@@ -0,0 +1,85 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.model.Trainee;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class NaturalIdLookupTest {
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeDAO traineeDAO;
+
+    @Autowired
+    private TrainerDAO trainerDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByUsername_ShouldNotRequery_WithinOneRequest() {
+        transactionTemplate.executeWithoutResult(status -> {
+            statistics.clear();
+            Optional<Trainee> first = traineeDAO.findByUsername("mike.johnson");
+            long afterFirstLookup = statistics.getPrepareStatementCount();
+
+            Optional<Trainee> second = traineeDAO.findByUsername("mike.johnson");
+            traineeDAO.findByUsername("mike.johnson");
+
+            assertTrue(first.isPresent());
+            assertSame(first.get(), second.orElseThrow());
+            assertEquals(afterFirstLookup, statistics.getPrepareStatementCount());
+        });
+    }
+
+    @Test
+    void findByUsername_ShouldBeServedFromSecondLevelCache_AcrossRequests() {
+        transactionTemplate.executeWithoutResult(status -> traineeDAO.findByUsername("sarah.wilson"));
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status ->
+                assertTrue(traineeDAO.findByUsername("sarah.wilson").isPresent()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    void findByUsername_ShouldReturnEmpty_WhenUsernameBelongsToOtherSubtype() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(trainerDAO.findByUsername("mike.johnson").isEmpty());
+            assertTrue(traineeDAO.findByUsername("john.smith").isEmpty());
+        });
+    }
+}
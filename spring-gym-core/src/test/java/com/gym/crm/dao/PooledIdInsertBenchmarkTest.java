@@ -0,0 +1,203 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.Training;
+import com.gym.crm.model.TrainingType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entity inserts with pooled sequence ids and JDBC batching. Registrations write a users row and a trainees row
+ * each, so with IDENTITY ids this was two round trips per trainee; now each table goes out 50 rows per batch.
+ * The default run checks the statement budgets on 200 rows; the rates are measured with {@code -Pbenchmark} over
+ * 2,000 registrations and trainings, more via {@code -Dbenchmark.insert-rows=100000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PooledIdInsertBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledIdInsertBenchmarkTest.class);
+    private static final int ROWS = Integer.getInteger("benchmark.insert-rows", 2_000);
+    private static final int CHECKED_ROWS = 200;
+    private static final int BATCH_SIZE = 50;
+    private static final String PASSWORD_HASH = "$2a$10$lUpyjuWKywh8kgSndVCnH.8.B/WCj7iwwKsML8mdeMRq1dXifhaNi";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrainingDAO trainingDAO;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'pooled-%'");
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username LIKE 'pooled.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'pooled.%'");
+        // The trainees were persisted through Hibernate; drop their entity and natural-id cache entries too
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void registrationsAndTrainings_ShouldInsertInBatches() {
+        insertRegistrationsAndTrainings(CHECKED_ROWS);
+    }
+
+    @Test
+    void insertAll_ShouldTakeIdsInBlocksOfFifty() {
+        List<TrainingDAO.NewTraining> trainings = new ArrayList<>(CHECKED_ROWS);
+        for (int i = 0; i < CHECKED_ROWS; i++) {
+            trainings.add(new TrainingDAO.NewTraining(3L, 1L, 1L, "pooled-jdbc-" + i, LocalDate.of(2026, 1, 1), 60));
+        }
+        long sequenceBefore = trainingsSequenceValue();
+
+        transactionTemplate.executeWithoutResult(status -> trainingDAO.insertAll(trainings));
+        long persistedId = transactionTemplate.execute(status -> {
+            Training training = new Training();
+            training.setTrainee(entityManager.getReference(Trainee.class, 3L));
+            training.setTrainer(entityManager.getReference(Trainer.class, 1L));
+            training.setTrainingType(entityManager.getReference(TrainingType.class, 1L));
+            training.setTrainingName("pooled-entity");
+            training.setTrainingDate(LocalDate.of(2026, 1, 1));
+            training.setTrainingDuration(60);
+            entityManager.persist(training);
+            return training.getId();
+        });
+
+        // One sequence call per 50 rows (the column default would take one per row), plus at most one block
+        // left over from earlier entity inserts; the entity persisted afterwards draws from the same blocks
+        long blocks = (trainingsSequenceValue() - sequenceBefore) / BATCH_SIZE;
+        assertTrue(blocks <= CHECKED_ROWS / BATCH_SIZE + 1, "Expected pooled ids, took " + blocks + " blocks");
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM trainings WHERE training_name LIKE 'pooled-%' ORDER BY id", Long.class);
+        assertEquals(CHECKED_ROWS + 1, ids.size());
+        assertEquals(persistedId, ids.get(CHECKED_ROWS));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void registrationsAndTrainings_ShouldReportInsertRates() {
+        InsertResult result = insertRegistrationsAndTrainings(ROWS);
+
+        LOGGER.info("{} registrations: {}/s in {} statements; {} trainings: {}/s in {} statements",
+                ROWS, Math.round(perSecond(ROWS, result.registrationNanos())), result.registrationStatements(),
+                ROWS, Math.round(perSecond(ROWS, result.trainingNanos())), result.trainingStatements());
+    }
+
+    private InsertResult insertRegistrationsAndTrainings(int rows) {
+        statistics.clear();
+        long registrationStart = System.nanoTime();
+        List<Long> traineeIds = transactionTemplate.execute(status -> {
+            Long[] ids = new Long[rows];
+            for (int i = 0; i < rows; i++) {
+                Trainee trainee = new Trainee();
+                trainee.setFirstName("Pooled");
+                trainee.setLastName("Trainee" + i);
+                trainee.setUsername("pooled.trainee" + i);
+                trainee.setPassword(PASSWORD_HASH);
+                trainee.setDateOfBirth(LocalDate.of(2000, 1, 1));
+                trainee.setActive(true);
+                entityManager.persist(trainee);
+                ids[i] = trainee.getId();
+                flushEveryBatch(i);
+            }
+            return List.of(ids);
+        });
+        long registrationNanos = System.nanoTime() - registrationStart;
+        long registrationStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(rows, traineeIds.stream().distinct().count());
+        // Two tables per registration plus one sequence call per 50 ids, each in batches of 50
+        assertTrue(registrationStatements <= 3L * (rows / BATCH_SIZE + 1),
+                "Expected batched inserts, got " + registrationStatements + " statements for " + rows + " trainees");
+
+        statistics.clear();
+        long trainingStart = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Trainer trainer = entityManager.getReference(Trainer.class, 1L);
+            TrainingType trainingType = entityManager.getReference(TrainingType.class, 1L);
+            for (int i = 0; i < rows; i++) {
+                Training training = new Training();
+                training.setTrainee(entityManager.getReference(Trainee.class, traineeIds.get(i)));
+                training.setTrainer(trainer);
+                training.setTrainingType(trainingType);
+                training.setTrainingName("pooled-" + i);
+                training.setTrainingDate(LocalDate.of(2026, 1, 1).plusDays(i % 365));
+                training.setTrainingDuration(60);
+                entityManager.persist(training);
+                flushEveryBatch(i);
+            }
+        });
+        long trainingNanos = System.nanoTime() - trainingStart;
+        long trainingStatements = statistics.getPrepareStatementCount();
+
+        assertTrue(trainingStatements <= 2L * (rows / BATCH_SIZE + 1),
+                "Expected batched inserts, got " + trainingStatements + " statements for " + rows + " trainings");
+        return new InsertResult(registrationNanos, registrationStatements, trainingNanos, trainingStatements);
+    }
+
+    private long trainingsSequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TRAININGS_SEQ'", Long.class);
+    }
+
+    private void flushEveryBatch(int i) {
+        if ((i + 1) % BATCH_SIZE == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    private static double perSecond(int rows, long nanos) {
+        return rows * 1_000_000_000.0 / nanos;
+    }
+
+    private record InsertResult(long registrationNanos, long registrationStatements,
+                                long trainingNanos, long trainingStatements) {
+    }
+}
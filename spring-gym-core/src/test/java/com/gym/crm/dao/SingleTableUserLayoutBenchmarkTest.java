@@ -0,0 +1,14 @@
+package com.gym.crm.dao;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = "users.layout.shadow-writes=false")
+@ActiveProfiles({"test", "single-table-users"})
+class SingleTableUserLayoutBenchmarkTest extends UserLayoutBenchmark {
+
+    @Override
+    String layout() {
+        return "SINGLE_TABLE";
+    }
+}
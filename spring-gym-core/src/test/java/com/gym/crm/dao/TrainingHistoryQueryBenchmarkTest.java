@@ -0,0 +1,104 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Training history lookups with random filter mixes: every mix maps to one of the precompiled query variants, so
+ * the plan cache only misses the first time a variant is seen. The default run checks the miss budget over 200
+ * calls; the hit rate and per-call time are measured over 2,000 calls with {@code -Pbenchmark}
+ * ({@code -Dbenchmark.history-calls=N} for more).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingHistoryQueryBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingHistoryQueryBenchmarkTest.class);
+    private static final int CALLS = Integer.getInteger("benchmark.history-calls", 2_000);
+    private static final int CHECKED_CALLS = 200;
+    private static final String[] NAMES = {null, "", "John", "Smith", "Jane"};
+    private static final String[] TYPES = {null, "", "Cardio", "Yoga"};
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TrainingDAO trainingDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void historyQueries_ShouldMissPlanCache_OnlyOncePerVariant() {
+        Statistics statistics = runFilterMixes(CHECKED_CALLS);
+
+        assertMissesWithinVariantBudget(statistics.getQueryPlanCacheMissCount());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void historyQueries_ShouldHitPlanCache_AcrossRandomFilterMixes() {
+        long start = System.nanoTime();
+        Statistics statistics = runFilterMixes(CALLS);
+        long micros = (System.nanoTime() - start) / 1_000;
+
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        double hitRate = (double) hits / (hits + misses);
+        LOGGER.info("history queries: {} plan cache hits, {} misses, {} us per call", hits, misses, micros / CALLS);
+
+        assertMissesWithinVariantBudget(misses);
+        assertTrue(hitRate > 0.98);
+    }
+
+    private Statistics runFilterMixes(int calls) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        SplittableRandom random = new SplittableRandom(34);
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < calls; i++) {
+                LocalDate from = random.nextBoolean() ? LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)) : null;
+                LocalDate to = random.nextBoolean() ? LocalDate.of(2025, 1, 1).plusDays(random.nextInt(365)) : null;
+                String name = NAMES[random.nextInt(NAMES.length)];
+                Integer limit = random.nextBoolean() ? 1 + random.nextInt(50) : null;
+                if (random.nextBoolean()) {
+                    trainingDAO.findTraineeHistory("mike.johnson", from, to, name, TYPES[random.nextInt(TYPES.length)], limit);
+                } else {
+                    trainingDAO.findTrainerHistory("john.smith", from, to, name, limit);
+                }
+            }
+        });
+        return statistics;
+    }
+
+    private static void assertMissesWithinVariantBudget(long misses) {
+        // Hibernate 6 counts a miss in the HQL interpretation cache and another in the select plan cache the first
+        // time it sees a string, so each variant costs two misses and nothing else should
+        assertTrue(misses <= 2L * TrainingDAO.historyVariantCount(),
+                misses + " plan cache misses for " + TrainingDAO.historyVariantCount() + " variants");
+    }
+}
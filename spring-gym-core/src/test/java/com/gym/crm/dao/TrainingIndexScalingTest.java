@@ -0,0 +1,130 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Trainings-endpoint query latency with and without the V2 composite indexes. Without them H2 still has
+ * its single-column foreign-key indexes, which is what the old ddl-auto schema had.
+ * Runs 10k rows by default; larger sizes via {@code -Dbenchmark.training-sizes=10000,1000000,10000000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+class TrainingIndexScalingTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingIndexScalingTest.class);
+
+    private static final String SIZES = System.getProperty("benchmark.training-sizes", "10000");
+    private static final long[] TRAINEE_IDS = {3, 4};
+    private static final long[] TRAINER_IDS = {1, 2};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final int DAYS = 3_650;
+    private static final int RUNS = 15;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrainingDAO trainingDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        createIndexes();
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'scaling-%'");
+    }
+
+    @Test
+    void trainingHistory_ShouldScaleWithCompositeIndexes() {
+        int inserted = 0;
+        for (String size : SIZES.split(",")) {
+            int target = Integer.parseInt(size.trim());
+            insertTrainings(inserted, target);
+            inserted = target;
+
+            long indexedMicros = medianMicros();
+            int indexedRows = queryMonth().size();
+            dropIndexes();
+            long scanMicros = medianMicros();
+            int scanRows = queryMonth().size();
+            createIndexes();
+
+            LOGGER.info("{} trainings: trainee month window {} us with composite indexes vs {} us with FK indexes only",
+                    target, indexedMicros, scanMicros);
+            assertEquals(indexedRows, scanRows);
+        }
+    }
+
+    private List<?> queryMonth() {
+        LocalDate from = FIRST_DAY.plusDays(DAYS / 2);
+        return transactionTemplate.execute(status ->
+                trainingDAO.findTraineeHistory("mike.johnson", from, from.plusDays(30), null, null, null));
+    }
+
+    private long medianMicros() {
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            queryMonth();
+            samples[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private void insertTrainings(int from, int to) {
+        int batchSize = 10_000;
+        for (int start = from; start < to; start += batchSize) {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int i = start; i < Math.min(to, start + batchSize); i++) {
+                batch.add(new Object[]{
+                        TRAINEE_IDS[i % TRAINEE_IDS.length],
+                        TRAINER_IDS[(i / 2) % TRAINER_IDS.length],
+                        1 + i % 5,
+                        "scaling-" + i,
+                        Date.valueOf(FIRST_DAY.plusDays(i % DAYS)),
+                        30 + i % 90});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO trainings (trainee_id, trainer_id, training_type_id, training_name, " +
+                    "training_date, training_duration) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private void dropIndexes() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_trainings_trainee_date");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_trainings_trainer_date");
+    }
+
+    private void createIndexes() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_trainings_trainee_date ON trainings (trainee_id, training_date)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_trainings_trainer_date ON trainings (trainer_id, training_date)");
+    }
+}
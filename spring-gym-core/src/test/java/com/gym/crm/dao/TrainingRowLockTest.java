@@ -0,0 +1,121 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The workload deltas of a bulk delete are built from the rows it deletes. Those rows are locked when read, and
+ * a training another transaction adds in between is not among the deleted ids, so it stays with its workload.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingRowLockTest {
+
+    private static final long TRAINER_ID = 1L;
+    private static final long TRAINEE_ID = 3L;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TrainingDAO trainingDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'lock-%'");
+    }
+
+    @Test
+    void lockTrainerTrainingsAfter_ShouldLockRows_AndLeaveConcurrentInsertsToTheirOwner() {
+        LocalDate today = LocalDate.now();
+        insertTraining("lock-0", today.plusDays(3));
+        insertTraining("lock-1", today.plusDays(40));
+
+        int deleted = transactionTemplate.execute(status -> {
+            List<TrainingDAO.LockedTraining> locked = trainingDAO.lockTrainerTrainingsAfter(TRAINER_ID, today);
+            List<Long> lockedIds = locked.stream().map(TrainingDAO.LockedTraining::id).toList();
+            List<Long> seededIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM trainings WHERE training_name LIKE 'lock-%'", Long.class);
+            assertTrue(lockedIds.containsAll(seededIds));
+
+            // Another transaction can add a training but cannot change a locked one
+            CompletableFuture.runAsync(() -> insertTraining("lock-concurrent", today.plusDays(5))).join();
+            assertTrue(CompletableFuture.supplyAsync(() -> updateTimesOut(seededIds.get(0))).join());
+
+            return trainingDAO.deleteTrainerTrainings(TRAINER_ID, lockedIds);
+        });
+
+        assertTrue(deleted >= 2);
+        assertEquals(List.of("lock-concurrent"), jdbcTemplate.queryForList(
+                "SELECT training_name FROM trainings WHERE training_name LIKE 'lock-%'", String.class));
+    }
+
+    @Test
+    void lockTraineeTrainings_ShouldLockRows_AndLeaveConcurrentInsertsToTheirOwner() {
+        LocalDate today = LocalDate.now();
+        insertTraining("lock-past", today.minusDays(10));
+        insertTraining("lock-future", today.plusDays(10));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> lockedIds = trainingDAO.lockTraineeTrainings(TRAINEE_ID).stream()
+                    .map(TrainingDAO.LockedTraining::id)
+                    .toList();
+            List<Long> seededIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM trainings WHERE training_name LIKE 'lock-%'", Long.class);
+            assertTrue(lockedIds.containsAll(seededIds));
+
+            CompletableFuture.runAsync(() -> insertTraining("lock-concurrent", today.plusDays(5))).join();
+            assertTrue(CompletableFuture.supplyAsync(() -> updateTimesOut(seededIds.get(1))).join());
+
+            trainingDAO.deleteTraineeTrainings(TRAINEE_ID, lockedIds);
+        });
+
+        assertEquals(List.of("lock-concurrent"), jdbcTemplate.queryForList(
+                "SELECT training_name FROM trainings WHERE training_name LIKE 'lock-%'", String.class));
+    }
+
+    private void insertTraining(String name, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO trainings (trainee_id, trainer_id, training_type_id, training_name, " +
+                "training_date, training_duration) VALUES (?, ?, 1, ?, ?, 60)", TRAINEE_ID, TRAINER_ID, name, Date.valueOf(date));
+    }
+
+    private boolean updateTimesOut(long trainingId) {
+        return jdbcTemplate.execute((Statement statement) -> {
+            statement.execute("SET LOCK_TIMEOUT 200");
+            try {
+                statement.executeUpdate("UPDATE trainings SET training_duration = 1 WHERE id = " + trainingId);
+                return false;
+            } catch (SQLException e) {
+                return true;
+            } finally {
+                statement.execute("SET LOCK_TIMEOUT 10000");
+            }
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.gym.crm.dao;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dto.auth.UserCredentialsDto;
+import com.gym.crm.dto.trainee.TraineeProfileResponseDto;
+import com.gym.crm.service.TraineeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Login, profile and registration latency over one user layout; the subclasses pick JOINED or SINGLE_TABLE.
+ * Seeds 20,000 trainees by default; the 1M comparison is {@code -Dbenchmark.layout-users=1000000}. Shadow writes
+ * are off in both so registration pays only for the layout under test. Runs with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+abstract class UserLayoutBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserLayoutBenchmark.class);
+
+    private static final int USERS = Integer.getInteger("benchmark.layout-users", 20_000);
+    private static final int LOOKUPS = 2_000;
+    private static final int REGISTRATIONS = 200;
+    private static final int SEED_BATCH = 10_000;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Label logged with the results.
+     */
+    abstract String layout();
+
+    @BeforeEach
+    void setUp() {
+        for (int from = 0; from < USERS; from += SEED_BATCH) {
+            List<Object[]> users = new ArrayList<>(SEED_BATCH);
+            for (int i = from; i < Math.min(from + SEED_BATCH, USERS); i++) {
+                users.add(new Object[]{"Layout", "User" + i, "layout.user." + i, "{noop}secret",
+                        Date.valueOf(LocalDate.of(1990, 1, 1).plusDays(i % 10_000)), "Street " + i});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (first_name, last_name, username, password, is_active, " +
+                    "user_type, date_of_birth, address) VALUES (?, ?, ?, ?, TRUE, 'TRAINEE', ?, ?)", users);
+        }
+        jdbcTemplate.update("INSERT INTO trainees (id, date_of_birth, address) " +
+                "SELECT id, date_of_birth, address FROM users WHERE username LIKE 'layout.user.%'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username LIKE 'layout.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'layout.%'");
+    }
+
+    @Test
+    void loginProfileAndRegistration_ShouldReportLatency() {
+        Random random = new Random(42);
+        List<String> usernames = new ArrayList<>(LOOKUPS);
+        for (int i = 0; i < LOOKUPS; i++) {
+            usernames.add("layout.user." + random.nextInt(USERS));
+        }
+
+        List<Long> loginNanos = new ArrayList<>(LOOKUPS);
+        for (String username : usernames) {
+            long start = System.nanoTime();
+            UserCredentialsDto credentials = transactionTemplate.execute(status ->
+                    userDAO.findCredentialsByUsername(username).orElseThrow());
+            loginNanos.add(System.nanoTime() - start);
+            assertEquals("TRAINEE", credentials.getRole());
+        }
+
+        List<Long> profileNanos = new ArrayList<>(LOOKUPS);
+        for (String username : usernames) {
+            long start = System.nanoTime();
+            TraineeProfileResponseDto profile = traineeService.getTraineeProfile(username, List.of()).orElseThrow();
+            profileNanos.add(System.nanoTime() - start);
+            assertNotNull(profile.getDateOfBirth());
+        }
+
+        List<Long> registrationNanos = new ArrayList<>(REGISTRATIONS);
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            long start = System.nanoTime();
+            traineeService.createTraineeProfile("Layout", "Registered", LocalDate.of(1995, 5, 5), "Street " + i);
+            registrationNanos.add(System.nanoTime() - start);
+        }
+
+        LOGGER.info("User layout {} over {} trainees:", layout(), USERS);
+        LOGGER.info("  login:        p50 {} us, p95 {} us",
+                percentileMicros(loginNanos, 50), percentileMicros(loginNanos, 95));
+        LOGGER.info("  profile:      p50 {} us, p95 {} us",
+                percentileMicros(profileNanos, 50), percentileMicros(profileNanos, 95));
+        LOGGER.info("  registration: p50 {} us, p95 {} us",
+                percentileMicros(registrationNanos, 50), percentileMicros(registrationNanos, 95));
+        assertEquals(REGISTRATIONS, userDAO.findUsernamesStartingWith("layout.registered").size());
+    }
+
+    private long percentileMicros(List<Long> nanos, int percentile) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gym.crm.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DatabaseHealthIndicatorTest {
+
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(30);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private HikariDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:health-probe;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    private DatabaseHealthIndicator indicator(DataSource source) {
+        return new DatabaseHealthIndicator(source, new SimpleMeterRegistry(), MAX_STALENESS, Duration.ofSeconds(2), clock);
+    }
+
+    @Test
+    void health_ShouldBeUnknown_BeforeFirstProbe() {
+        assertEquals(Status.UNKNOWN, indicator(dataSource).health().getStatus());
+    }
+
+    @Test
+    void health_ShouldServeCachedResult_WithPoolAndLatencyDetails() {
+        DatabaseHealthIndicator indicator = indicator(dataSource);
+        indicator.probe();
+
+        Health health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertTrue(health.getDetails().containsKey("probeLatencyPercentilesMillis"));
+        Map<?, ?> pool = (Map<?, ?>) health.getDetails().get("pool");
+        assertEquals(4, pool.get("max"));
+        assertEquals(0, pool.get("threadsAwaitingConnection"));
+    }
+
+    @Test
+    void health_ShouldBeDown_WhenLastProbeIsStale() {
+        DatabaseHealthIndicator indicator = indicator(dataSource);
+        indicator.probe();
+
+        clock.advance(MAX_STALENESS.plusSeconds(1));
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("Database probe result is stale", health.getDetails().get("message"));
+    }
+
+    @Test
+    void health_ShouldBeDown_WhenProbeCannotConnect() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("Connection refused"));
+        DatabaseHealthIndicator indicator = indicator(broken);
+
+        indicator.probe();
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertFalse(health.getDetails().containsKey("pool"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.gym.crm.health;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.User;
+import com.gym.crm.service.TraineeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shadow writes under the SINGLE_TABLE layout: the trainees table, which the relation tables still reference, has to
+ * follow every registration, update and deletion, and the dual-read check must find no drift.
+ */
+@SpringBootTest(properties = "users.layout.dual-read.enabled=true")
+@ActiveProfiles({"test", "single-table-users"})
+class UserLayoutDualWriteTest {
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private UserLayoutVerifier userLayoutVerifier;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private String username;
+
+    @AfterEach
+    void tearDown() {
+        if (username != null) {
+            traineeService.deleteTraineeProfileByUsername(username);
+        }
+        jdbcTemplate.update("DELETE FROM trainee_trainer WHERE trainee_id IN " +
+                "(SELECT id FROM users WHERE username LIKE 'flush.%')");
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username LIKE 'flush.%')");
+        jdbcTemplate.update("DELETE FROM trainers WHERE id IN (SELECT id FROM users WHERE username LIKE 'flush.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'flush.%'");
+    }
+
+    @Test
+    void traineeLifecycle_ShouldKeepSubtypeTableInStep() {
+        username = traineeService.createTraineeProfile("Dual", "Write", LocalDate.of(1990, 1, 1), "Street 1")
+                .getUsername();
+        // trainee_trainer references trainees, so this fails unless the shadow row was written in the same flush
+        assertTrue(traineeService.updateTraineeTrainersList(username, List.of("john.smith", "jane.doe")).isPresent());
+        traineeService.updateTraineeProfile(username, "Dual", "Write", LocalDate.of(1991, 2, 2), "Street 2", true);
+
+        Map<String, Object> shadow = jdbcTemplate.queryForMap("SELECT t.date_of_birth, t.address FROM trainees t " +
+                "JOIN users u ON u.id = t.id WHERE u.username = ?", username);
+        assertEquals("Street 2", shadow.get("ADDRESS"));
+        userLayoutVerifier.verify();
+        assertEquals(0, userLayoutVerifier.traineeDrift());
+        assertEquals(0, userLayoutVerifier.trainerDrift());
+
+        assertTrue(traineeService.deleteTraineeProfileByUsername(username));
+        username = null;
+        userLayoutVerifier.verify();
+        assertEquals(0, userLayoutVerifier.traineeDrift());
+    }
+
+    @Test
+    void usersAndTheirLinksInsertedInOneFlush_ShouldHaveSubtypeRowsBeforeTheLinks() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Trainer coach = new Trainer();
+            fill(coach, "flush.coach");
+            entityManager.persist(coach);
+            for (int i = 0; i < 3; i++) {
+                Trainee trainee = new Trainee();
+                fill(trainee, "flush.trainee" + i);
+                trainee.setAddress("Street " + i);
+                trainee.setTrainers(Set.of(coach, entityManager.getReference(Trainer.class, 1L)));
+                entityManager.persist(trainee);
+            }
+        });
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainees t JOIN users u ON u.id = t.id " +
+                "WHERE u.username LIKE 'flush.%' AND t.address LIKE 'Street %'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainers t JOIN users u ON u.id = t.id " +
+                "WHERE u.username = 'flush.coach'", Integer.class));
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainee_trainer tt " +
+                "JOIN users u ON u.id = tt.trainee_id WHERE u.username LIKE 'flush.%'", Integer.class));
+        userLayoutVerifier.verify();
+        assertEquals(0, userLayoutVerifier.traineeDrift());
+        assertEquals(0, userLayoutVerifier.trainerDrift());
+    }
+
+    private static void fill(User user, String username) {
+        user.setFirstName("Flush");
+        user.setLastName("Batch");
+        user.setUsername(username);
+        user.setPassword("{noop}secret");
+        user.setActive(true);
+    }
+}
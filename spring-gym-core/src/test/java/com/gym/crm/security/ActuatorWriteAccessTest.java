@@ -0,0 +1,78 @@
+package com.gym.crm.security;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Actuator reads are public, but write operations such as {@code POST /actuator/trainingtypes} reload state and
+ * are limited to the usernames in {@code security.admin-usernames}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "security.admin-usernames=john.smith")
+@ActiveProfiles("test")
+class ActuatorWriteAccessTest {
+
+    private static final String REFRESH = "/actuator/trainingtypes";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void read_ShouldBeOpen() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(REFRESH, String.class).getStatusCode());
+    }
+
+    @Test
+    void write_ShouldBeRejected_WithoutToken() {
+        assertEquals(HttpStatus.FORBIDDEN, post(new HttpHeaders()).getStatusCode());
+    }
+
+    @Test
+    void write_ShouldBeForbidden_ForRegularUser() {
+        assertEquals(HttpStatus.FORBIDDEN, post(bearer("mike.johnson")).getStatusCode());
+    }
+
+    @Test
+    void write_ShouldReload_ForAdmin() {
+        ResponseEntity<String> response = post(bearer("john.smith"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("\"loaded\""), response.getBody());
+    }
+
+    private ResponseEntity<String> post(HttpHeaders headers) {
+        return restTemplate.exchange(REFRESH, HttpMethod.POST, new HttpEntity<>(headers), String.class);
+    }
+
+    private HttpHeaders bearer(String username) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtUtil.generateToken(userDetailsService.loadUserByUsername(username)));
+        return headers;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gym.crm.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BCryptStrengthCalibratorTest {
+
+    @Test
+    void calibrate_ShouldKeepMinimumStrength_WhenTargetIsUnreachable() {
+        assertEquals(4, BCryptStrengthCalibrator.calibrate(Duration.ZERO, 4, 12));
+    }
+
+    @Test
+    void calibrate_ShouldCapAtMaximumStrength_WhenTargetIsGenerous() {
+        assertEquals(6, BCryptStrengthCalibrator.calibrate(Duration.ofSeconds(30), 4, 6));
+    }
+}
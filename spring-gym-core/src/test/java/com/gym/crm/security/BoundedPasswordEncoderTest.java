@@ -0,0 +1,104 @@
+package com.gym.crm.security;
+
+import com.gym.crm.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(slowEncoder, 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    private double queuedTasks() {
+        return meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value();
+    }
+
+    @Test
+    void encode_ShouldDelegateAndRecordLatency() {
+        release.countDown();
+
+        assertEquals("hashed:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hashed:secret"));
+
+        assertEquals(1, meterRegistry.get("crm.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("crm.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void encodeAll_ShouldKeepInputOrder_AndTimeEachPassword() {
+        release.countDown();
+
+        assertEquals(List.of("hashed:a", "hashed:b", "hashed:c"), encoder.encodeAll(List.of("a", "b", "c")));
+        assertEquals(3, meterRegistry.get("crm.password.hashing").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void encodeAll_ShouldLeaveLoginPoolIdle() {
+        CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> encoder.encodeAll(List.of("a", "b")));
+        await().atMost(Duration.ofSeconds(5)).until(() -> meterRegistry.get("executor.active")
+                .tag("name", "password.hashing.bulk").gauge().value() == 1);
+
+        assertEquals(0, meterRegistry.get("executor.active").tag("name", "password.hashing").gauge().value());
+        assertEquals(0, queuedTasks());
+
+        release.countDown();
+        assertEquals(List.of("hashed:a", "hashed:b"), bulk.join());
+    }
+
+    @Test
+    void encode_ShouldShedLoad_WhenQueueIsFull() {
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> meterRegistry.get("executor.active")
+                .tag("name", "password.hashing").gauge().value() == 1);
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> queuedTasks() == 1);
+
+        assertThrows(ServiceOverloadedException.class, () -> encoder.encode("third"));
+        assertEquals(1, meterRegistry.get("crm.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed:first", running.join());
+        assertEquals("hashed:second", queued.join());
+    }
+}
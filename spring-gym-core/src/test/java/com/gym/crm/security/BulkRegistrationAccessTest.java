@@ -0,0 +1,106 @@
+package com.gym.crm.security;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk registration creates any number of accounts and returns their plaintext passwords, so it is limited to the
+ * usernames in {@code security.admin-usernames}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "security.admin-usernames=john.smith")
+@ActiveProfiles("test")
+class BulkRegistrationAccessTest {
+
+    private static final String TRAINEES = "/api/trainees/register/bulk";
+    private static final String TRAINERS = "/api/trainers/register/bulk";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username LIKE 'bulkaccess.%')");
+        jdbcTemplate.update("DELETE FROM trainers WHERE id IN (SELECT id FROM users WHERE username LIKE 'bulkaccess.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'bulkaccess.%'");
+    }
+
+    @Test
+    void bulkRegistration_ShouldBeForbidden_ForRegularUser() {
+        HttpHeaders trainee = bearer("mike.johnson");
+
+        assertEquals(HttpStatus.FORBIDDEN, post(TRAINEES, trainee, traineeLine()).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, post(TRAINERS, trainee, trainerLine()).getStatusCode());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE 'bulkaccess.%'", Integer.class));
+    }
+
+    @Test
+    void bulkRegistration_ShouldBeRejected_WithoutToken() {
+        assertEquals(HttpStatus.FORBIDDEN, post(TRAINEES, new HttpHeaders(), traineeLine()).getStatusCode());
+    }
+
+    @Test
+    void bulkRegistration_ShouldStreamCredentials_ForAdmin() {
+        HttpHeaders admin = bearer("john.smith");
+
+        ResponseEntity<String> trainees = post(TRAINEES, admin, traineeLine());
+        ResponseEntity<String> trainers = post(TRAINERS, admin, trainerLine());
+
+        assertEquals(HttpStatus.OK, trainees.getStatusCode());
+        assertTrue(trainees.getBody().contains("\"username\":\"bulkaccess.trainee\""), trainees.getBody());
+        assertEquals(HttpStatus.OK, trainers.getStatusCode());
+        assertTrue(trainers.getBody().contains("\"username\":\"bulkaccess.trainer\""), trainers.getBody());
+    }
+
+    private ResponseEntity<String> post(String path, HttpHeaders headers, String body) {
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return restTemplate.exchange(path, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private HttpHeaders bearer(String username) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtUtil.generateToken(userDetailsService.loadUserByUsername(username)));
+        return headers;
+    }
+
+    private static String traineeLine() {
+        return "{\"firstName\":\"BulkAccess\",\"lastName\":\"Trainee\"}\n";
+    }
+
+    private static String trainerLine() {
+        return "{\"firstName\":\"BulkAccess\",\"lastName\":\"Trainer\",\"specializationId\":1}\n";
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.crm.security;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dto.error.ErrorResponseDto;
+import com.gym.crm.dto.auth.LoginRequestDto;
+import com.gym.crm.service.LoginAttemptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Logins arrive through the gateway, a loopback/internal peer that forwards the caller in X-Forwarded-For: the
+ * per-IP throttle must count the caller, so one blocked client leaves the others behind the gateway alone.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ForwardedClientIpLoginTest {
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void login_ShouldThrottleForwardedClient_NotTheGateway() {
+        for (int i = 0; i < LoginAttemptService.MAX_ATTEMPTS_PER_IP; i++) {
+            assertEquals(HttpStatus.UNAUTHORIZED, login("forwarded.user" + i, "198.51.100.7").getStatusCode());
+        }
+
+        ResponseEntity<ErrorResponseDto> blocked = login("forwarded.fresh", "198.51.100.7");
+        assertEquals(HttpStatus.UNAUTHORIZED, blocked.getStatusCode());
+        assertTrue(blocked.getBody().getError().contains("from this address"), blocked.getBody().getError());
+
+        ResponseEntity<ErrorResponseDto> other = login("forwarded.fresh", "198.51.100.8");
+        assertEquals("Invalid username or password", other.getBody().getError());
+    }
+
+    private ResponseEntity<ErrorResponseDto> login(String username, String clientIp) {
+        LoginRequestDto request = new LoginRequestDto();
+        request.setUsername(username);
+        request.setPassword("wrong-password");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientIp);
+        return restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(request, headers), ErrorResponseDto.class);
+    }
+}
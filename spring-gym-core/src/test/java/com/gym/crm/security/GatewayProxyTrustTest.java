@@ -0,0 +1,79 @@
+package com.gym.crm.security;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.RemoteIpValve;
+import org.apache.catalina.valves.ValveBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A gateway on another container or host is trusted once GATEWAY_PROXIES names it: logins it forwards count against
+ * the client in X-Forwarded-For, while the same header from any other peer is ignored.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "GATEWAY_PROXIES=172\\.28\\.0\\.1")
+@ActiveProfiles("test")
+class GatewayProxyTrustTest {
+
+    private static final String CLIENT = "198.51.100.7";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TomcatServletWebServerFactory webServerFactory;
+
+    @Test
+    void forwardedFor_ShouldBeUsed_FromConfiguredGateway() throws Exception {
+        assertEquals(CLIENT, remoteAddrSeenBehind("172.28.0.1"));
+    }
+
+    @Test
+    void forwardedFor_ShouldBeIgnored_FromOtherPeers() throws Exception {
+        assertEquals("172.28.0.9", remoteAddrSeenBehind("172.28.0.9"));
+        assertEquals("127.0.0.1", remoteAddrSeenBehind("127.0.0.1"));
+    }
+
+    private String remoteAddrSeenBehind(String peer) throws Exception {
+        RemoteIpValve remoteIpValve = webServerFactory.getEngineValves().stream()
+                .filter(RemoteIpValve.class::isInstance)
+                .map(RemoteIpValve.class::cast)
+                .findFirst()
+                .orElseThrow();
+        // A copy of the configured valve, so the running server's pipeline is left alone
+        RemoteIpValve valve = new RemoteIpValve();
+        valve.setInternalProxies(remoteIpValve.getInternalProxies());
+        valve.setTrustedProxies(remoteIpValve.getTrustedProxies());
+        valve.setRemoteIpHeader(remoteIpValve.getRemoteIpHeader());
+        AtomicReference<String> seen = new AtomicReference<>();
+        valve.setNext(new ValveBase() {
+            @Override
+            public void invoke(Request request, Response response) {
+                seen.set(request.getRemoteAddr());
+            }
+        });
+
+        Request request = new Request(new Connector());
+        request.setCoyoteRequest(new org.apache.coyote.Request());
+        request.setRemoteAddr(peer);
+        request.setRemoteHost(peer);
+        request.getCoyoteRequest().getMimeHeaders().addValue("X-Forwarded-For").setString(CLIENT);
+        valve.invoke(request, null);
+        return seen.get();
+    }
+}
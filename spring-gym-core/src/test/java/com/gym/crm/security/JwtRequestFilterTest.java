@@ -0,0 +1,58 @@
+package com.gym.crm.security;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The JWT filter resolves the user before any transaction or open-in-view session exists.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtRequestFilterTest {
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void request_ShouldBeAuthenticated_WithValidToken() throws Exception {
+        String token = jwtUtil.generateToken(User.builder()
+                .username("mike.johnson")
+                .password("password")
+                .authorities(Collections.emptyList())
+                .build());
+
+        mockMvc.perform(get("/api/trainees/mike.johnson").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Mike"));
+    }
+
+    @Test
+    void request_ShouldBeRejected_WithoutToken() throws Exception {
+        mockMvc.perform(get("/api/trainees/mike.johnson"))
+                .andExpect(status().is4xxClientError());
+    }
+}
@@ -0,0 +1,166 @@
+package com.gym.crm.security;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dto.auth.AuthenticationResponseDto;
+import com.gym.crm.dto.auth.CredentialsDto;
+import com.gym.crm.dto.auth.LoginRequestDto;
+import com.gym.crm.service.TraineeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Read latency during a login flood at a production-like BCrypt cost. Logins hash on the bounded pool and are shed
+ * with 503 once its queue is full, so request threads stay free and the p99 of an authenticated read endpoint should
+ * stay close to its idle value. Samples 500 reads idle and under 32 flooding threads by default; change with
+ * {@code -Dbenchmark.login-flood-threads=N -Dbenchmark.login-flood-samples=N}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "security.password-hashing.strength=10")
+@ActiveProfiles("test")
+@Tag("benchmark")
+class LoginFloodReadLatencyBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginFloodReadLatencyBenchmarkTest.class);
+    private static final int FLOOD_THREADS = Integer.getInteger("benchmark.login-flood-threads", 32);
+    private static final int SAMPLES = Integer.getInteger("benchmark.login-flood-samples", 500);
+    private static final int WARMUP = 100;
+    private static final String READ_ENDPOINT = "/api/training-types";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    private TestRestTemplate restTemplate;
+    private CredentialsDto credentials;
+    private HttpEntity<Void> authorizedRead;
+
+    @BeforeEach
+    void setUp() {
+        // The JDK client opens a connection per concurrent caller; the default pooled client allows five per route,
+        // and the reads would then queue behind the flood in the client instead of in the server
+        restTemplate = new TestRestTemplate(new RestTemplateBuilder()
+                .rootUri("http://localhost:" + port)
+                .requestFactory(() -> new JdkClientHttpRequestFactory()));
+        credentials = traineeService.createTraineeProfile("Login", "Flood", LocalDate.of(1990, 1, 1), "Street 1");
+        ResponseEntity<AuthenticationResponseDto> login = login();
+        assertEquals(HttpStatus.OK, login.getStatusCode());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(login.getBody().getToken());
+        authorizedRead = new HttpEntity<>(headers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        traineeService.deleteTraineeProfileByUsername(credentials.getUsername());
+    }
+
+    @Test
+    void readP99_ShouldStayStable_DuringLoginFlood() throws Exception {
+        sampleReads(WARMUP);
+        long idleP99 = p99(sampleReads(SAMPLES));
+
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        ExecutorService flood = Executors.newFixedThreadPool(FLOOD_THREADS);
+        List<Future<?>> floodThreads = new ArrayList<>(FLOOD_THREADS);
+        long floodP99;
+        long start = System.nanoTime();
+        try {
+            for (int thread = 0; thread < FLOOD_THREADS; thread++) {
+                floodThreads.add(flood.submit(() -> {
+                    while (flooding.get()) {
+                        HttpStatus status = HttpStatus.valueOf(login().getStatusCode().value());
+                        if (status == HttpStatus.OK) {
+                            accepted.incrementAndGet();
+                        } else if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+                            shed.incrementAndGet();
+                        } else {
+                            throw new IllegalStateException("Unexpected login status " + status);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            floodP99 = p99(sampleReads(SAMPLES));
+        } finally {
+            flooding.set(false);
+            flood.shutdown();
+        }
+        for (Future<?> floodThread : floodThreads) {
+            floodThread.get();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        LOGGER.info("Read p99 on {}: idle {} us, during a {}-thread login flood {} us",
+                READ_ENDPOINT, idleP99 / 1_000, FLOOD_THREADS, floodP99 / 1_000);
+        LOGGER.info("  flood: {} logins accepted, {} shed with 503 in {} ms", accepted.get(), shed.get(), elapsedMillis);
+
+        assertTrue(accepted.get() > 0, "no login got through during the flood");
+        assertTrue(floodP99 <= idleP99 * 5 + 20_000_000L,
+                "read p99 rose from " + idleP99 / 1_000 + " us to " + floodP99 / 1_000 + " us during the flood");
+    }
+
+    private List<Long> sampleReads(int count) {
+        List<Long> latencies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            ResponseEntity<String> response =
+                    restTemplate.exchange(READ_ENDPOINT, HttpMethod.GET, authorizedRead, String.class);
+            latencies.add(System.nanoTime() - start);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+        return latencies;
+    }
+
+    private ResponseEntity<AuthenticationResponseDto> login() {
+        LoginRequestDto request = new LoginRequestDto();
+        request.setUsername(credentials.getUsername());
+        request.setPassword(credentials.getPassword());
+        return restTemplate.postForEntity("/api/auth/login", request, AuthenticationResponseDto.class);
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.model.TrainingType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Single-training path with participants resolved through {@link TrainingParticipantCache}: statements per call
+ * with a warm and a cold cache, and latency under concurrency with {@code -Pbenchmark}. Runs 8 threads of 200 calls
+ * by default; more via {@code -Dbenchmark.add-training-threads=N -Dbenchmark.add-training-calls=N}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AddTrainingFastPathBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AddTrainingFastPathBenchmarkTest.class);
+    private static final int THREADS = Integer.getInteger("benchmark.add-training-threads", 8);
+    private static final int CALLS = Integer.getInteger("benchmark.add-training-calls", 200);
+    private static final String[] TRAINEES = {"mike.johnson", "sarah.wilson"};
+    private static final String[] TRAINERS = {"john.smith", "jane.doe"};
+    // The insert, plus a sequence call for every 50 ids
+    private static final double WARM_MAX_STATEMENTS_PER_CALL = 1.1;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingTypeService trainingTypeService;
+
+    @Autowired
+    private TrainingParticipantCache participantCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'fastpath-%'");
+    }
+
+    @Test
+    void addTraining_ShouldRunOnlyTheInsert_WhenCacheIsWarm() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TrainingType yoga = trainingTypeService.findById(3L).orElseThrow();
+
+        statistics.clear();
+        for (int i = 0; i < CALLS; i++) {
+            evictAll();
+            add(yoga, "fastpath-cold-", i);
+        }
+        long coldStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        for (int i = 0; i < CALLS; i++) {
+            add(yoga, "fastpath-warm-", i);
+        }
+        long warmStatements = statistics.getPrepareStatementCount();
+
+        LOGGER.info("addTraining: {} calls ran {} statements cold, {} warm", CALLS, coldStatements, warmStatements);
+        assertTrue(warmStatements <= WARM_MAX_STATEMENTS_PER_CALL * CALLS,
+                "warm addTraining ran " + warmStatements + " statements for " + CALLS + " calls");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void addTraining_ShouldReportLatency_UnderConcurrency() throws Exception {
+        TrainingType yoga = trainingTypeService.findById(3L).orElseThrow();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                String prefix = "fastpath-concurrent-" + thread + "-";
+                results.add(executor.submit(() -> {
+                    List<Long> nanos = new ArrayList<>(CALLS);
+                    for (int i = 0; i < CALLS; i++) {
+                        long start = System.nanoTime();
+                        add(yoga, prefix, i);
+                        nanos.add(System.nanoTime() - start);
+                    }
+                    return nanos;
+                }));
+            }
+            List<Long> latencies = new ArrayList<>(THREADS * CALLS);
+            for (Future<List<Long>> result : results) {
+                latencies.addAll(result.get());
+            }
+
+            LOGGER.info("addTraining: {} threads x {} calls: p50 {} us, p99 {} us", THREADS, CALLS,
+                    percentileMicros(latencies, 50), percentileMicros(latencies, 99));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * CALLS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trainings WHERE training_name LIKE 'fastpath-concurrent-%'", Integer.class));
+    }
+
+    private void add(TrainingType trainingType, String namePrefix, int i) {
+        assertNotNull(trainingService.addTraining(TRAINEES[i % TRAINEES.length], TRAINERS[i % TRAINERS.length],
+                namePrefix + i, trainingType, LocalDate.of(2026, 1, 1).plusDays(i % 365), 60));
+    }
+
+    private void evictAll() {
+        for (String trainee : TRAINEES) {
+            participantCache.evictTrainee(trainee);
+        }
+        for (String trainer : TRAINERS) {
+            participantCache.evictTrainer(trainer);
+        }
+    }
+
+    private long percentileMicros(List<Long> nanos, int percentile) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000;
+    }
+}
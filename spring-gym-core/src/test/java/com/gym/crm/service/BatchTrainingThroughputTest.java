@@ -0,0 +1,128 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dto.WorkloadRequest;
+import com.gym.crm.dto.training.AddTrainingRequestDto;
+import com.gym.crm.dto.training.BatchTrainingResponseDto;
+import com.gym.crm.messaging.WorkloadMessageProducer;
+import com.gym.crm.model.TrainingType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Trainings per second through the single-training path versus the batch path, on the seeded trainees and
+ * trainers. Runs 500 trainings by default; more via {@code -Dbenchmark.batch-trainings=20000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchTrainingThroughputTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchTrainingThroughputTest.class);
+    private static final int TRAININGS = Integer.getInteger("benchmark.batch-trainings", 500);
+    private static final String[] TRAINEES = {"mike.johnson", "sarah.wilson"};
+    private static final String[] TRAINERS = {"john.smith", "jane.doe"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @MockitoSpyBean
+    private WorkloadMessageProducer messageProducer;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingTypeService trainingTypeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'throughput-%'");
+    }
+
+    @Test
+    void addTrainings_ShouldInsertEveryTraining_WithOneMessagePerTrainerAndMonth() {
+        BatchTrainingResponseDto response = trainingService.addTrainings(requests("throughput-batch-"));
+
+        assertEquals(TRAININGS, response.getCreated());
+        assertEquals(TRAININGS, countTrainings("throughput-batch-%"));
+        verify(messageProducer, atMost(TRAINERS.length * 12)).sendWorkloadMessage(any(WorkloadRequest.class));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void addTrainings_ShouldOutpaceSingleInserts() {
+        List<AddTrainingRequestDto> requests = requests("throughput-single-");
+        TrainingType yoga = trainingTypeService.findById(3L).orElseThrow();
+
+        long singleStart = System.nanoTime();
+        for (AddTrainingRequestDto request : requests) {
+            trainingService.addTraining(request.getTraineeUsername(), request.getTrainerUsername(),
+                    request.getTrainingName(), yoga, request.getTrainingDate(), request.getTrainingDuration());
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+        clearInvocations(messageProducer);
+
+        long batchStart = System.nanoTime();
+        BatchTrainingResponseDto response = trainingService.addTrainings(requests("throughput-batch-"));
+        long batchNanos = System.nanoTime() - batchStart;
+
+        LOGGER.info("{} trainings: {}/s one at a time vs {}/s batched",
+                TRAININGS, Math.round(perSecond(singleNanos)), Math.round(perSecond(batchNanos)));
+        assertEquals(TRAININGS, response.getCreated());
+        assertEquals(TRAININGS, countTrainings("throughput-batch-%"));
+        assertEquals(countTrainings("throughput-single-%"), countTrainings("throughput-batch-%"));
+        // At most one workload message per trainer and month in the batch
+        verify(messageProducer, atMost(TRAINERS.length * 12)).sendWorkloadMessage(any(WorkloadRequest.class));
+    }
+
+    private static List<AddTrainingRequestDto> requests(String namePrefix) {
+        List<AddTrainingRequestDto> requests = new ArrayList<>(TRAININGS);
+        for (int i = 0; i < TRAININGS; i++) {
+            AddTrainingRequestDto request = new AddTrainingRequestDto();
+            request.setTraineeUsername(TRAINEES[i % TRAINEES.length]);
+            request.setTrainerUsername(TRAINERS[(i / 2) % TRAINERS.length]);
+            request.setTrainingName(namePrefix + i);
+            request.setTrainingDate(FIRST_DAY.plusDays(i % 365));
+            request.setTrainingDuration(30 + i % 90);
+            request.setTrainingTypeId(3L);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private int countTrainings(String namePattern) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainings WHERE training_name LIKE ?",
+                Integer.class, namePattern);
+    }
+
+    private double perSecond(long nanos) {
+        return TRAININGS * 1_000_000_000.0 / nanos;
+    }
+}
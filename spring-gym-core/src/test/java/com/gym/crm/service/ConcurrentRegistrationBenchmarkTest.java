@@ -0,0 +1,131 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent trainee registration against a 4-connection pool at a production-like BCrypt cost. Connections are held
+ * for the username lookup and the insert only, so their mean usage stays below the mean hash time and registrations
+ * do not queue on the pool behind hashing. Runs 16 threads of 10 registrations by default; more via
+ * {@code -Dbenchmark.registration-threads=N -Dbenchmark.registrations-per-thread=N}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "security.password-hashing.strength=10"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class ConcurrentRegistrationBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentRegistrationBenchmarkTest.class);
+    private static final int THREADS = Integer.getInteger("benchmark.registration-threads", 16);
+    private static final int PER_THREAD = Integer.getInteger("benchmark.registrations-per-thread", 10);
+    private static final String POOL = "gym-core-pool";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<String> usernames = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        usernames.forEach(traineeService::deleteTraineeProfileByUsername);
+    }
+
+    @Test
+    void createTraineeProfile_ShouldNotHoldConnections_WhileHashing() throws Exception {
+        Snapshot acquireBefore = Snapshot.of(poolTimer("hikaricp.connections.acquire"));
+        Snapshot usageBefore = Snapshot.of(poolTimer("hikaricp.connections.usage"));
+        Snapshot encodeBefore = Snapshot.of(encodeTimer());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<String>>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                // One base name per thread, so threads compete for connections and not for username serials
+                String lastName = "Registration" + thread;
+                results.add(executor.submit(() -> {
+                    List<String> created = new ArrayList<>(PER_THREAD);
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        created.add(traineeService.createTraineeProfile("Pool", lastName,
+                                LocalDate.of(1990, 1, 1), "Street " + i).getUsername());
+                    }
+                    return created;
+                }));
+            }
+            for (Future<List<String>> result : results) {
+                usernames.addAll(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        double acquireMillis = Snapshot.of(poolTimer("hikaricp.connections.acquire")).meanMillisSince(acquireBefore);
+        double usageMillis = Snapshot.of(poolTimer("hikaricp.connections.usage")).meanMillisSince(usageBefore);
+        double encodeMillis = Snapshot.of(encodeTimer()).meanMillisSince(encodeBefore);
+        LOGGER.info("{} registrations on {} threads in {} ms: {}/s", usernames.size(), THREADS,
+                elapsedNanos / 1_000_000, Math.round(usernames.size() * 1_000_000_000.0 / elapsedNanos));
+        LOGGER.info("  pool wait mean {} us, connection held mean {} us, hash mean {} us",
+                Math.round(acquireMillis * 1_000), Math.round(usageMillis * 1_000), Math.round(encodeMillis * 1_000));
+
+        assertEquals(THREADS * PER_THREAD, usernames.size());
+        Set<String> distinct = new HashSet<>(usernames);
+        assertEquals(usernames.size(), distinct.size(), "duplicate usernames handed out");
+        assertTrue(usageMillis < encodeMillis,
+                "connections held " + usageMillis + " ms on average, hashing took " + encodeMillis + " ms");
+    }
+
+    private Timer poolTimer(String name) {
+        return meterRegistry.get(name).tag("pool", POOL).timer();
+    }
+
+    private Timer encodeTimer() {
+        return meterRegistry.get("crm.password.hashing").tag("operation", "encode").timer();
+    }
+
+    private record Snapshot(long count, double totalMillis) {
+
+        static Snapshot of(Timer timer) {
+            return new Snapshot(timer.count(), timer.totalTime(TimeUnit.MILLISECONDS));
+        }
+
+        double meanMillisSince(Snapshot before) {
+            long calls = count - before.count;
+            return calls == 0 ? 0 : (totalMillis - before.totalMillis) / calls;
+        }
+    }
+}
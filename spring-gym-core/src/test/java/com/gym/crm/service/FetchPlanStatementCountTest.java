@@ -0,0 +1,157 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dao.TrainingDAO;
+import com.gym.crm.dto.trainee.TraineeProfileResponseDto;
+import com.gym.crm.dto.trainer.TrainerProfileResponseDto;
+import com.gym.crm.mapper.TraineeMapper;
+import com.gym.crm.mapper.TrainerMapper;
+import com.gym.crm.model.Training;
+import com.gym.crm.model.TrainingType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query budget per endpoint use case. Training links are lazy, so each flow pays only for what it maps; a failure
+ * here means an association started loading eagerly or a fetch plan lost a node.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FetchPlanStatementCountTest {
+
+    // Trainee id and trainer summary on a participant cache miss, the id sequence and the insert
+    private static final int ADD_TRAINING_MAX_STATEMENTS = 4;
+    // The profile graph in one select, plus the update itself
+    private static final int PROFILE_UPDATE_MAX_STATEMENTS = 2;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TrainingTypeService trainingTypeService;
+
+    @Autowired
+    private TrainingDAO trainingDAO;
+
+    @Autowired
+    private TraineeMapper traineeMapper;
+
+    @Autowired
+    private TrainerMapper trainerMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String traineeUsername;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        traineeUsername = traineeService.createTraineeProfile("Fetch", "Plan", LocalDate.of(1990, 1, 1), "Street 1")
+                .getUsername();
+        traineeService.updateTraineeTrainersList(traineeUsername, List.of("john.smith", "jane.doe"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Through the service, so the second-level, natural-id and participant caches drop the trainee before the
+        // next setUp registers the same username under a new id
+        traineeService.deleteTraineeProfileByUsername(traineeUsername);
+    }
+
+    @Test
+    void addTraining_ShouldStayWithinBudget() {
+        TrainingType strength = trainingTypeService.findById(2L).orElseThrow();
+
+        statistics.clear();
+        Training training = trainingService.addTraining(traineeUsername, "john.smith", "Fetch plan",
+                strength, LocalDate.now().plusDays(1), 60);
+
+        assertNotNull(training);
+        assertTrue(statistics.getPrepareStatementCount() <= ADD_TRAINING_MAX_STATEMENTS,
+                "add training ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void findTraining_ShouldLoadOneRow_WithoutParticipants() {
+        TrainingType strength = trainingTypeService.findById(2L).orElseThrow();
+        long id = trainingService.addTraining(traineeUsername, "john.smith", "Fetch plan",
+                strength, LocalDate.now().plusDays(1), 60).getId();
+
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            Training training = trainingDAO.findById(id).orElseThrow();
+            assertFalse(Hibernate.isInitialized(training.getTrainee()));
+            assertFalse(Hibernate.isInitialized(training.getTrainer()));
+            assertFalse(Hibernate.isInitialized(training.getTrainingType()));
+        });
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void trainingLists_ShouldUseOneStatement() {
+        statistics.clear();
+        traineeService.getTraineeTrainingsList(traineeUsername, null, null, null, null, null);
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        trainerService.getTrainerTrainingsList("john.smith", null, null, null, null);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateTraineeProfile_ShouldMapTrainersFromProfileGraph() {
+        statistics.clear();
+        TraineeProfileResponseDto profile = transactionTemplate.execute(status -> traineeMapper.toTraineeProfileResponseDto(
+                traineeService.updateTraineeProfile(traineeUsername, "Fetch", "Plan", LocalDate.of(1990, 1, 1),
+                        "Street 2", true).orElseThrow()));
+
+        assertEquals(2, profile.getTrainers().size());
+        assertTrue(statistics.getPrepareStatementCount() <= PROFILE_UPDATE_MAX_STATEMENTS,
+                "trainee profile update ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void updateTrainerProfile_ShouldMapTraineesFromProfileGraph() {
+        statistics.clear();
+        TrainerProfileResponseDto profile = transactionTemplate.execute(status -> trainerMapper.toTrainerProfileResponseDto(
+                trainerService.updateTrainerProfile("jane.doe", "Jane", "Doe",
+                        trainingTypeService.findById(3L).orElseThrow(), true).orElseThrow()));
+
+        assertTrue(profile.getTrainees().stream().anyMatch(trainee -> trainee.getUsername().equals(traineeUsername)));
+        assertTrue(statistics.getPrepareStatementCount() <= PROFILE_UPDATE_MAX_STATEMENTS,
+                "trainer profile update ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -0,0 +1,94 @@
+package com.gym.crm.service;
+
+import com.google.common.base.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptServiceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private LoginAttemptService loginAttemptService;
+
+    @BeforeEach
+    void setUp() {
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        loginAttemptService = new LoginAttemptService(ticker);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void isBlocked_ShouldBeTrue_AfterMaxFailuresInsideWindow() {
+        for (int i = 0; i < LoginAttemptService.MAX_ATTEMPTS; i++) {
+            assertFalse(loginAttemptService.isBlocked("john.smith"));
+            loginAttemptService.loginFailed("john.smith");
+        }
+
+        assertTrue(loginAttemptService.isBlocked("john.smith"));
+        assertFalse(loginAttemptService.isBlocked("jane.doe"));
+    }
+
+    @Test
+    void isBlocked_ShouldSlide_WhenOldFailuresLeaveTheWindow() {
+        loginAttemptService.loginFailed("john.smith");
+        advance(Duration.ofMinutes(3));
+        loginAttemptService.loginFailed("john.smith");
+        advance(Duration.ofMinutes(3));
+        loginAttemptService.loginFailed("john.smith");
+
+        // The first failure is 6 minutes old, so only two count against the window.
+        assertFalse(loginAttemptService.isBlocked("john.smith"));
+
+        loginAttemptService.loginFailed("john.smith");
+        assertTrue(loginAttemptService.isBlocked("john.smith"));
+
+        advance(LoginAttemptService.WINDOW);
+        assertFalse(loginAttemptService.isBlocked("john.smith"));
+    }
+
+    @Test
+    void isBlocked_ShouldBlockClientIp_WhenFailuresAreSpreadAcrossUsernames() {
+        String clientIp = "10.0.0.7";
+        for (int i = 0; i < LoginAttemptService.MAX_ATTEMPTS_PER_IP; i++) {
+            loginAttemptService.loginFailed("user" + i, clientIp);
+        }
+
+        assertTrue(loginAttemptService.isBlocked("fresh.user", clientIp));
+        assertTrue(loginAttemptService.isIpBlocked(clientIp));
+        assertFalse(loginAttemptService.isBlocked("fresh.user"));
+        assertFalse(loginAttemptService.isBlocked("fresh.user", "10.0.0.8"));
+    }
+
+    @Test
+    void isBlocked_ShouldNotTrackUsernames_WithoutFailures() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 5_000; i++) {
+            assertFalse(loginAttemptService.isBlocked(Long.toHexString(random.nextLong()), "10.0.0.7"));
+        }
+
+        assertEquals(0, loginAttemptService.trackedKeys());
+    }
+
+    @Test
+    void loginFailed_ShouldStayBounded_UnderRandomUsernameFlood() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < LoginAttemptService.MAX_TRACKED_KEYS * 3; i++) {
+            loginAttemptService.loginFailed(Long.toHexString(random.nextLong()));
+        }
+
+        assertTrue(loginAttemptService.trackedKeys() <= LoginAttemptService.MAX_TRACKED_KEYS);
+    }
+}
@@ -0,0 +1,135 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dao.TraineeDAO;
+import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dto.CursorPageDto;
+import com.gym.crm.dto.trainee.TraineeProfileResponseDto;
+import com.gym.crm.dto.trainer.TrainerProfileResponseDto;
+import com.gym.crm.exception.InvalidRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProfilePageStatementCountTest {
+
+    private static final int STATEMENTS_PER_PAGE = 2;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private TraineeDAO traineeDAO;
+
+    @Autowired
+    private TrainerDAO trainerDAO;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getTraineeProfilesPage_ShouldUseConstantStatements_ForEveryPage() {
+        for (int i = 0; i < 5; i++) {
+            traineeService.createTraineeProfile("Paging", "Trainee", LocalDate.of(2000, 1, 1), "Street " + i);
+        }
+
+        int seen = 0;
+        String cursor = null;
+        do {
+            statistics.clear();
+            CursorPageDto<TraineeProfileResponseDto> page = traineeService.getTraineeProfilesPage(cursor, 2);
+            assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+            assertTrue(page.getItems().size() <= 2);
+            page.getItems().forEach(item -> assertNotNull(item.getTrainers()));
+            seen += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(traineeDAO.findAll().size(), seen);
+    }
+
+    @Test
+    void getTrainerProfilesPage_ShouldUseConstantStatements_ForEveryPage() {
+        int seen = 0;
+        String cursor = null;
+        do {
+            statistics.clear();
+            CursorPageDto<TrainerProfileResponseDto> page = trainerService.getTrainerProfilesPage(cursor, 1);
+            assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+            page.getItems().forEach(item -> assertNotNull(item.getSpecialization()));
+            seen += page.getItems().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(trainerDAO.findAll().size(), seen);
+    }
+
+    @Test
+    void getTraineeProfile_ShouldQueryOnlyRequestedAssociations() {
+        statistics.clear();
+        TraineeProfileResponseDto basic = traineeService.getTraineeProfile("mike.johnson", List.of()).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(basic.getTrainers());
+        assertEquals("Mike", basic.getFirstName());
+
+        statistics.clear();
+        TraineeProfileResponseDto full = traineeService.getTraineeProfile("mike.johnson", null).orElseThrow();
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNotNull(full.getTrainers());
+    }
+
+    @Test
+    void getTrainerProfile_ShouldQueryOnlyRequestedAssociations() {
+        statistics.clear();
+        TrainerProfileResponseDto basic = trainerService.getTrainerProfile("john.smith", List.of()).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertNull(basic.getTrainees());
+        assertNotNull(basic.getSpecialization());
+
+        statistics.clear();
+        TrainerProfileResponseDto full = trainerService.getTrainerProfile("john.smith", List.of("trainees")).orElseThrow();
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNotNull(full.getTrainees());
+    }
+
+    @Test
+    void getTraineeProfile_ShouldRejectUnknownField() {
+        assertThrows(InvalidRequestException.class,
+                () -> traineeService.getTraineeProfile("mike.johnson", List.of("trainings")));
+    }
+
+    @Test
+    void getTraineeProfilesPage_ShouldRejectMalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> traineeService.getTraineeProfilesPage("not-a-cursor!", 10));
+    }
+}
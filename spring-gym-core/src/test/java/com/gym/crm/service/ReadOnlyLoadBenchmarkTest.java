@@ -0,0 +1,199 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dao.TraineeDAO;
+import com.gym.crm.model.Trainee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entity loads on the read paths with bytecode enhancement and read-only sessions: entities carry no dirty-checking
+ * snapshot, the password hash stays unloaded, and a flush has nothing to compare. The default run checks this on
+ * 200 trainees; allocation and flush time for the same load in a read-write and a read-only transaction, and the
+ * time to walk every profile page, are reported with {@code -Pbenchmark} over 5,000 trainees
+ * ({@code -Dbenchmark.read-only-trainees=N}).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadOnlyLoadBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadOnlyLoadBenchmarkTest.class);
+    private static final int TRAINEES = Integer.getInteger("benchmark.read-only-trainees", 5_000);
+    private static final int CHECKED_TRAINEES = 200;
+    private static final int ROUNDS = 3;
+    private static final int PAGE_SIZE = 100;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TraineeDAO traineeDAO;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private void seed(int trainees) {
+        List<Object[]> users = new ArrayList<>(trainees);
+        for (int i = 0; i < trainees; i++) {
+            users.add(new Object[]{"ReadOnly", "Trainee" + i, "readonly.trainee." + i, "{noop}secret",
+                    Date.valueOf(LocalDate.of(1990, 1, 1).plusDays(i % 10_000)), "Street " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (first_name, last_name, username, password, is_active, " +
+                "user_type, date_of_birth, address) VALUES (?, ?, ?, ?, TRUE, 'TRAINEE', ?, ?)", users);
+        jdbcTemplate.update("INSERT INTO trainees (id, date_of_birth, address) " +
+                "SELECT id, date_of_birth, address FROM users WHERE username LIKE 'readonly.trainee.%'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN " +
+                "(SELECT id FROM users WHERE username LIKE 'readonly.trainee.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'readonly.trainee.%'");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldLoadWithoutSnapshots() {
+        seed(CHECKED_TRAINEES);
+
+        LoadResult readWrite = measure(false);
+        LoadResult readOnly = measure(true);
+
+        assertEquals(readWrite.entities(), readWrite.snapshots());
+        assertEquals(0, readOnly.snapshots());
+        assertTrue(readOnly.entities() >= CHECKED_TRAINEES);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void readOnlyTransaction_ShouldAllocateLess_AndFlushFaster() {
+        seed(TRAINEES);
+
+        LoadResult readWrite = measure(false);
+        LoadResult readOnly = measure(true);
+
+        LOGGER.info("Loading {} trainees:", readWrite.entities());
+        LOGGER.info("  read-write: {} snapshots, {} KB allocated, flush {} us",
+                readWrite.snapshots(), readWrite.allocatedBytes() / 1024, readWrite.flushNanos() / 1_000);
+        LOGGER.info("  read-only:  {} snapshots, {} KB allocated, flush {} us",
+                readOnly.snapshots(), readOnly.allocatedBytes() / 1024, readOnly.flushNanos() / 1_000);
+
+        assertEquals(0, readOnly.snapshots());
+        assertTrue(readOnly.entities() >= TRAINEES);
+    }
+
+    @Test
+    void profilePages_ShouldLoadReadOnly_WithoutPassword() {
+        seed(CHECKED_TRAINEES);
+
+        // Called through the DAO in a read-write transaction, as an open-in-view session would
+        List<Trainee> page = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Trainee> trainees = traineeDAO.findPageAfter(0, PAGE_SIZE);
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            trainees.forEach(trainee -> {
+                assertInstanceOf(SelfDirtinessTracker.class, trainee, "entities are not bytecode-enhanced");
+                assertTrue(session.isReadOnly(trainee));
+                assertFalse(Hibernate.isPropertyInitialized(trainee, "password"));
+            });
+            return trainees;
+        });
+        assertEquals(PAGE_SIZE, page.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void profilePages_ShouldReportWalkTime() {
+        seed(TRAINEES);
+
+        long start = System.nanoTime();
+        String cursor = null;
+        int pages = 0;
+        do {
+            cursor = traineeService.getTraineeProfilesPage(cursor, PAGE_SIZE).getNextCursor();
+            pages++;
+        } while (cursor != null);
+        LOGGER.info("Profile pages: {} pages of {} in {} ms", pages, PAGE_SIZE,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void trainingsList_ShouldNotManageEntities() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            traineeService.getTraineeTrainingsList("mike.johnson", null, null, null, null, null);
+            SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+            assertEquals(0, session.getPersistenceContextInternal().getNumberOfManagedEntities());
+        });
+    }
+
+    private LoadResult measure(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        LoadResult best = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            LoadResult result = transactionTemplate.execute(status -> {
+                long allocatedBefore = allocatedBytes();
+                List<Trainee> trainees = traineeDAO.findAll();
+                long allocated = allocatedBytes() - allocatedBefore;
+
+                SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+                long snapshots = Arrays.stream(session.getPersistenceContextInternal().reentrantSafeEntityEntries())
+                        .filter(entry -> entry.getValue().getLoadedState() != null)
+                        .count();
+
+                long flushStart = System.nanoTime();
+                entityManager.flush();
+                return new LoadResult(trainees.size(), snapshots, allocated, System.nanoTime() - flushStart);
+            });
+            if (best == null || result.flushNanos() < best.flushNanos()) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private record LoadResult(int entities, long snapshots, long allocatedBytes, long flushNanos) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.gym.crm.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dto.auth.ImportedCredentialsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Bulk registration end to end: NDJSON in, credentials out. The trainee volume test repeats every fifth name so
+ * serial allocation is exercised; it runs 2,000 registrations by default and the 100k figure comes from
+ * {@code -Dbenchmark.registrations=100000}. The test profile hashes at BCrypt strength 4.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RegistrationImportServiceTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrationImportServiceTest.class);
+    private static final int REGISTRATIONS = Integer.getInteger("benchmark.registrations", 2_000);
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @MockitoSpyBean
+    private UserService userService;
+
+    @MockitoSpyBean
+    private ActiveTrainerIndex activeTrainerIndex;
+
+    @Autowired
+    private RegistrationImportService registrationImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username LIKE 'bulk.%')");
+        jdbcTemplate.update("DELETE FROM trainers WHERE id IN (SELECT id FROM users WHERE username LIKE 'bulk.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'bulk.%'");
+    }
+
+    @Test
+    void importTrainees_ShouldRegisterEveryValidLine_AndReportRejections() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            String lastName = i % 5 == 0 ? "Repeated" : "Member" + i;
+            body.append("{\"firstName\":\"Bulk\",\"lastName\":\"").append(lastName)
+                .append("\",\"dateOfBirth\":\"1990-01-01\"}\n");
+        }
+        body.append("{\"firstName\":\"Bulk\"}\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long start = System.nanoTime();
+        long created = registrationImportService.importTrainees(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+        long elapsedNanos = System.nanoTime() - start;
+
+        List<ImportedCredentialsDto> lines = credentials(out);
+        Set<String> usernames = new HashSet<>();
+        lines.stream().filter(line -> line.username() != null).forEach(line -> usernames.add(line.username()));
+
+        assertEquals(REGISTRATIONS, created);
+        assertEquals(REGISTRATIONS + 1, lines.size());
+        assertEquals(REGISTRATIONS, usernames.size());
+        assertEquals("Last name is required", lines.get(lines.size() - 1).error());
+        assertEquals(REGISTRATIONS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE 'bulk.%'", Integer.class));
+        LOGGER.info("{} bulk registrations in {} ms: {}/s", REGISTRATIONS, elapsedNanos / 1_000_000,
+                Math.round(REGISTRATIONS * 1_000_000_000.0 / elapsedNanos));
+    }
+
+    @Test
+    void importTrainers_ShouldRegisterTrainersWithTheirSpecialization() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long created = registrationImportService.importTrainers(
+                ndjson("{\"firstName\":\"Bulk\",\"lastName\":\"Coach\",\"specializationId\":2}"), out);
+
+        List<ImportedCredentialsDto> lines = credentials(out);
+        assertEquals(1, created);
+        assertEquals("bulk.coach", lines.get(0).username());
+        assertNotNull(lines.get(0).password());
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT t.specialization_id FROM trainers t " +
+                "JOIN users u ON u.id = t.id WHERE u.username = 'bulk.coach'", Long.class));
+        verify(activeTrainerIndex).invalidate();
+    }
+
+    @Test
+    void importTrainers_ShouldRejectUnknownSpecialization_AndKeepGoing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long created = registrationImportService.importTrainers(ndjson(
+                "{\"firstName\":\"Bulk\",\"lastName\":\"Nowhere\",\"specializationId\":999}",
+                "{\"firstName\":\"Bulk\",\"lastName\":\"Coach\",\"specializationId\":1}"), out);
+
+        List<ImportedCredentialsDto> lines = credentials(out);
+        assertEquals(1, created);
+        assertEquals(2, lines.size());
+        assertEquals(0, lines.get(0).index());
+        assertNull(lines.get(0).username());
+        assertEquals("Specialization (TrainingType) not found", lines.get(0).error());
+        assertEquals(1, lines.get(1).index());
+        assertEquals("bulk.coach", lines.get(1).username());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = 'bulk.nowhere'", Integer.class));
+    }
+
+    @Test
+    void importTrainers_ShouldInvalidateActiveTrainerIndex_WhenImportFails() {
+        // Every attempt collides with a seeded trainer, so the chunk gives up after its retries
+        doReturn(List.of("john.smith")).when(userService).generateUsernames(anyList());
+
+        assertThrows(RuntimeException.class, () -> registrationImportService.importTrainers(
+                ndjson("{\"firstName\":\"Bulk\",\"lastName\":\"Coach\",\"specializationId\":1}"),
+                new ByteArrayOutputStream()));
+
+        verify(userService, times(3)).generateUsernames(anyList());
+        verify(activeTrainerIndex).invalidate();
+    }
+
+    @Test
+    void importTrainees_ShouldRetryChunkWithFreshUsernames_WhenUsernameIsTaken() throws Exception {
+        // The first allocation loses to an existing user, as a concurrent registration would make it
+        doReturn(List.of("mike.johnson")).doCallRealMethod().when(userService).generateUsernames(anyList());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long created = registrationImportService.importTrainees(
+                ndjson("{\"firstName\":\"Bulk\",\"lastName\":\"Retry\"}"), out);
+
+        List<ImportedCredentialsDto> lines = credentials(out);
+        assertEquals(1, created);
+        assertEquals(List.of("bulk.retry"), lines.stream().map(ImportedCredentialsDto::username).toList());
+        verify(userService, times(2)).generateUsernames(anyList());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username = 'mike.johnson'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trainees t JOIN users u ON u.id = t.id WHERE u.username = 'bulk.retry'",
+                Integer.class));
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<ImportedCredentialsDto> credentials(ByteArrayOutputStream out) throws Exception {
+        try (MappingIterator<ImportedCredentialsDto> iterator =
+                     objectMapper.readerFor(ImportedCredentialsDto.class).readValues(out.toByteArray())) {
+            return iterator.readAll();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dto.WorkloadRequest;
+import com.gym.crm.messaging.WorkloadMessageProducer;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Deleting a trainee with many trainings: the statement count must not depend on the number of trainings, and
+ * the future half must reach the workload service as one DELETE per trainer and month. The default run deletes
+ * 1,000 trainings; the latency with 10k is measured with {@code -Pbenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TraineeDeletionLatencyTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraineeDeletionLatencyTest.class);
+    private static final int TRAININGS = 10_000;
+    private static final int CHECKED_TRAININGS = 1_000;
+    private static final long[] TRAINER_IDS = {1, 2};
+    private static final int MAX_STATEMENTS = 12;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @MockitoSpyBean
+    private WorkloadMessageProducer messageProducer;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'deletion-%'");
+        jdbcTemplate.update("DELETE FROM trainee_trainer WHERE trainee_id IN (SELECT id FROM users WHERE username = 'deletion.trainee')");
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username = 'deletion.trainee')");
+        jdbcTemplate.update("DELETE FROM users WHERE username = 'deletion.trainee'");
+    }
+
+    @Test
+    void deleteTraineeProfileByUsername_ShouldUseConstantStatements() {
+        deleteTraineeWithTrainings(CHECKED_TRAININGS);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void deleteTraineeProfileByUsername_ShouldReportLatency_ForTenThousandTrainings() {
+        DeletionResult result = deleteTraineeWithTrainings(TRAININGS);
+
+        LOGGER.info("Deleted trainee with {} trainings in {} ms using {} statements",
+                TRAININGS, result.elapsedMillis(), result.statements());
+    }
+
+    private DeletionResult deleteTraineeWithTrainings(int trainings) {
+        long traineeId = createTraineeWithTrainers();
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = new ArrayList<>(trainings);
+        for (int i = 0; i < trainings; i++) {
+            // Even rows in the past, odd rows spread over the next 90 days
+            LocalDate date = i % 2 == 0 ? today.minusDays(1 + i % 365) : today.plusDays(1 + i % 90);
+            rows.add(new Object[]{traineeId, TRAINER_IDS[(i / 2) % TRAINER_IDS.length], 1, "deletion-" + i,
+                    Date.valueOf(date), 60});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO trainings (trainee_id, trainer_id, training_type_id, training_name, " +
+                "training_date, training_duration) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        Integer futureTrainerMonths = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT DISTINCT trainer_id, YEAR(training_date) AS y, MONTH(training_date) AS m " +
+                        "FROM trainings WHERE trainee_id = ? AND training_date > ?) AS trainer_months", Integer.class,
+                traineeId, Date.valueOf(today));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        assertTrue(traineeService.deleteTraineeProfileByUsername("deletion.trainee"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected at most " + MAX_STATEMENTS + " statements, got " + statistics.getPrepareStatementCount());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainings WHERE trainee_id = ?",
+                Integer.class, traineeId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainee_trainer WHERE trainee_id = ?",
+                Integer.class, traineeId));
+        verify(messageProducer, times(futureTrainerMonths)).sendWorkloadMessage(
+                argThat(request -> request.getActionType() == WorkloadRequest.ActionType.DELETE));
+        return new DeletionResult(elapsedMillis, statistics.getPrepareStatementCount());
+    }
+
+    private long createTraineeWithTrainers() {
+        return transactionTemplate.execute(status -> {
+            Trainee trainee = new Trainee();
+            trainee.setFirstName("Deletion");
+            trainee.setLastName("Trainee");
+            trainee.setUsername("deletion.trainee");
+            trainee.setPassword("$2a$10$lUpyjuWKywh8kgSndVCnH.8.B/WCj7iwwKsML8mdeMRq1dXifhaNi");
+            trainee.setActive(true);
+            for (long trainerId : TRAINER_IDS) {
+                trainee.getTrainers().add(entityManager.find(Trainer.class, trainerId));
+            }
+            entityManager.persist(trainee);
+            return trainee.getId();
+        });
+    }
+
+    private record DeletionResult(long elapsedMillis, long statements) {
+    }
+}
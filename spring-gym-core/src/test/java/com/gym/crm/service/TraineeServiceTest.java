@@ -2,19 +2,34 @@ package com.gym.crm.service;
 
 import com.gym.crm.dao.TraineeDAO;
 import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dto.CursorPageDto;
 import com.gym.crm.dto.auth.CredentialsDto; 
+import com.gym.crm.dto.trainee.TrainerInfoDto;
+import com.gym.crm.mapper.TraineeMapper;
 import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.TrainingType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder; 
-
+import org.hibernate.exception.ConstraintViolationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,7 +46,19 @@ class TraineeServiceTest {
     @Mock
     private UserService userService;
     @Mock
-    private PasswordEncoder passwordEncoder; 
+    private TrainingService trainingService;
+    @Mock
+    private ActiveTrainerIndex activeTrainerIndex;
+    @Mock
+    private TrainingParticipantCache participantCache;
+    @Spy
+    private TraineeMapper traineeMapper = new TraineeMapper();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private TraineeService traineeService;
@@ -90,58 +117,54 @@ class TraineeServiceTest {
     }
 
     @Test
-    void changeTraineePassword_ShouldSucceed_WhenCredentialsAreCorrect() {
-        String username = "test.user";
-        String oldPasswordPlain = "oldPassword"; 
-        String newPasswordPlain = "newPassword"; 
-        String newPasswordEncoded = "encodedNewPassword"; 
-
-        when(traineeDAO.findByUsername(username)).thenReturn(Optional.of(testTrainee));
-        when(passwordEncoder.matches(oldPasswordPlain, encodedPassword)).thenReturn(true); 
-        when(passwordEncoder.encode(newPasswordPlain)).thenReturn(newPasswordEncoded); 
-
-        boolean result = traineeService.changeTraineePassword(username, oldPasswordPlain, newPasswordPlain);
-
-        assertTrue(result);
-        assertEquals(newPasswordEncoded, testTrainee.getPassword());
-
-        verify(passwordEncoder, times(1)).matches(oldPasswordPlain, encodedPassword);
-        verify(passwordEncoder, times(1)).encode(newPasswordPlain);
+    void createTraineeProfile_ShouldHashPassword_BeforeOpeningTransaction() {
+        when(userService.generatePlainPassword()).thenReturn("randomPass");
+        when(userService.encodePassword("randomPass")).thenReturn("encodedRandomPass");
+        when(userService.generateUsername(anyString(), anyString())).thenReturn("new.user");
+        when(traineeDAO.save(any(Trainee.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        traineeService.createTraineeProfile("New", "User", LocalDate.of(2000, 1, 1), "456 Main St");
+
+        InOrder inOrder = inOrder(userService, transactionManager, traineeDAO);
+        inOrder.verify(userService).encodePassword("randomPass");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userService).generateUsername(anyString(), anyString());
+        inOrder.verify(traineeDAO).save(any(Trainee.class));
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
-    void changeTraineePassword_ShouldFail_WhenOldPasswordIsIncorrect() {
-        String username = "test.user";
-        String wrongOldPasswordPlain = "wrongOldPassword";
-        String newPasswordPlain = "newPassword";
-
-        when(traineeDAO.findByUsername(username)).thenReturn(Optional.of(testTrainee));
-        when(passwordEncoder.matches(wrongOldPasswordPlain, encodedPassword)).thenReturn(false);
-
-        boolean result = traineeService.changeTraineePassword(username, wrongOldPasswordPlain, newPasswordPlain);
-
-        assertFalse(result);
-        assertEquals(encodedPassword, testTrainee.getPassword()); 
-
-        verify(passwordEncoder, times(1)).matches(wrongOldPasswordPlain, encodedPassword);
-        verify(passwordEncoder, never()).encode(anyString()); 
-        verify(traineeDAO, never()).save(any(Trainee.class)); 
+    void createTraineeProfile_ShouldRetryWithFreshUsername_WhenConcurrentRegistrationWins() {
+        when(userService.generatePlainPassword()).thenReturn("randomPass");
+        when(userService.encodePassword("randomPass")).thenReturn("encodedRandomPass");
+        when(userService.generateUsername("New", "User")).thenReturn("new.user", "new.user1");
+        when(traineeDAO.save(any(Trainee.class)))
+                .thenThrow(integrityViolation("PUBLIC.UK_USERS_USERNAME_INDEX_6"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        CredentialsDto credentials = traineeService.createTraineeProfile("New", "User", LocalDate.of(2000, 1, 1), "456 Main St");
+
+        assertEquals("new.user1", credentials.getUsername());
+        verify(userService, times(1)).encodePassword("randomPass");
+        verify(transactionManager, times(1)).rollback(any());
+        verify(traineeDAO, times(2)).save(any(Trainee.class));
     }
 
     @Test
-    void changeTraineePassword_ShouldFail_WhenTraineeNotFound() {
-        String username = "nonexistent.user";
-        String oldPasswordPlain = "oldPassword";
-        String newPasswordPlain = "newPassword";
-        when(traineeDAO.findByUsername(username)).thenReturn(Optional.empty());
-
-        boolean result = traineeService.changeTraineePassword(username, oldPasswordPlain, newPasswordPlain);
-
-        assertFalse(result);
+    void createTraineeProfile_ShouldNotRetry_WhenAnotherConstraintFails() {
+        when(userService.generatePlainPassword()).thenReturn("randomPass");
+        when(userService.encodePassword("randomPass")).thenReturn("encodedRandomPass");
+        when(userService.generateUsername("New", "User")).thenReturn("new.user");
+        when(traineeDAO.save(any(Trainee.class))).thenThrow(integrityViolation("PUBLIC.CK_USERS_NAME"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> traineeService.createTraineeProfile("New", "User", LocalDate.of(2000, 1, 1), "456 Main St"));
+        verify(traineeDAO, times(1)).save(any(Trainee.class));
+    }
 
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(passwordEncoder, never()).encode(anyString());
-        verify(traineeDAO, never()).save(any(Trainee.class));
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
     }
 
     @Test
@@ -188,7 +211,7 @@ class TraineeServiceTest {
         String updatedAddress = "456 Updated St";
         boolean updatedIsActive = false;
 
-        when(traineeDAO.findByUsername(username)).thenReturn(Optional.of(testTrainee));
+        when(traineeDAO.findProfileGraphByUsername(username)).thenReturn(Optional.of(testTrainee));
 
         Optional<Trainee> resultOpt = traineeService.updateTraineeProfile(username, updatedFirstName, updatedLastName, updatedDob, updatedAddress, updatedIsActive);
 
@@ -204,7 +227,7 @@ class TraineeServiceTest {
     @Test
     void updateTraineeProfile_ShouldReturnEmpty_WhenTraineeNotFound() {
         String username = "nonexistent.user";
-        when(traineeDAO.findByUsername(username)).thenReturn(Optional.empty());
+        when(traineeDAO.findProfileGraphByUsername(username)).thenReturn(Optional.empty());
 
         Optional<Trainee> resultOpt = traineeService.updateTraineeProfile(username, "New", "Name", null, null, true);
 
@@ -221,7 +244,10 @@ class TraineeServiceTest {
 
         assertTrue(result);
 
-        verify(traineeDAO, times(1)).delete(testTrainee);
+        InOrder inOrder = inOrder(trainingService, traineeDAO);
+        inOrder.verify(trainingService).deleteTraineeTrainings(testTrainee);
+        inOrder.verify(traineeDAO, times(1)).delete(testTrainee);
+        verify(participantCache).evictTrainee(username);
     }
 
     @Test
@@ -234,6 +260,76 @@ class TraineeServiceTest {
         assertFalse(result);
 
         verify(traineeDAO, never()).delete(any(Trainee.class));
+        verifyNoInteractions(trainingService, participantCache);
+    }
+
+    @Test
+    void getUnassignedTrainersPage_ShouldLoadIndexPageById() {
+        Trainer first = trainer(10L, "first.trainer");
+        Trainer second = trainer(12L, "second.trainer");
+        when(traineeDAO.findByUsername("test.user")).thenReturn(Optional.of(testTrainee));
+        when(traineeDAO.findTrainerIds(1L)).thenReturn(Set.of(11L));
+        when(activeTrainerIndex.pageAfter(0L, Set.of(11L), 3)).thenReturn(Optional.of(List.of(10L, 12L)));
+        when(trainerDAO.findActiveByIds(List.of(10L, 12L))).thenReturn(List.of(first, second));
+
+        Optional<CursorPageDto<TrainerInfoDto>> page = traineeService.getUnassignedTrainersPage("test.user", null, 2);
+
+        assertTrue(page.isPresent());
+        assertEquals(List.of("first.trainer", "second.trainer"),
+                page.get().getItems().stream().map(TrainerInfoDto::getUsername).toList());
+        assertNull(page.get().getNextCursor());
+        verify(trainerDAO, never()).findUnassignedPageAfter(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getUnassignedTrainersPage_ShouldKeepCursor_WhenIndexedTrainerWasDeactivated() {
+        Trainer second = trainer(12L, "second.trainer");
+        when(traineeDAO.findByUsername("test.user")).thenReturn(Optional.of(testTrainee));
+        when(traineeDAO.findTrainerIds(1L)).thenReturn(Set.of());
+        when(activeTrainerIndex.pageAfter(0L, Set.of(), 3)).thenReturn(Optional.of(List.of(10L, 12L, 14L)));
+        // Trainer 10 was deactivated after the index snapshot was taken
+        when(trainerDAO.findActiveByIds(List.of(10L, 12L))).thenReturn(List.of(second));
+
+        Optional<CursorPageDto<TrainerInfoDto>> page = traineeService.getUnassignedTrainersPage("test.user", null, 2);
+
+        assertTrue(page.isPresent());
+        assertEquals(List.of("second.trainer"),
+                page.get().getItems().stream().map(TrainerInfoDto::getUsername).toList());
+        assertEquals(PageCursor.encode(12L), page.get().getNextCursor());
+    }
+
+    @Test
+    void getUnassignedTrainersPage_ShouldUseAntiJoin_WhenIndexIsRebuilding() {
+        Trainer first = trainer(10L, "first.trainer");
+        Trainer second = trainer(12L, "second.trainer");
+        when(traineeDAO.findByUsername("test.user")).thenReturn(Optional.of(testTrainee));
+        when(traineeDAO.findTrainerIds(1L)).thenReturn(Set.of());
+        when(activeTrainerIndex.pageAfter(0L, Set.of(), 2)).thenReturn(Optional.empty());
+        when(trainerDAO.findUnassignedPageAfter(1L, 0L, 2)).thenReturn(List.of(first, second));
+
+        Optional<CursorPageDto<TrainerInfoDto>> page = traineeService.getUnassignedTrainersPage("test.user", null, 1);
+
+        assertTrue(page.isPresent());
+        assertEquals(1, page.get().getItems().size());
+        assertEquals(PageCursor.encode(10L), page.get().getNextCursor());
+        verify(trainerDAO, never()).findActiveByIds(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void getUnassignedTrainersPage_ShouldReturnEmpty_WhenTraineeNotFound() {
+        when(traineeDAO.findByUsername("nonexistent.user")).thenReturn(Optional.empty());
+
+        assertTrue(traineeService.getUnassignedTrainersPage("nonexistent.user", null, 20).isEmpty());
+        verifyNoInteractions(activeTrainerIndex);
+    }
+
+    private Trainer trainer(long id, String username) {
+        TrainingType specialization = new TrainingType();
+        specialization.setTrainingTypeName("Yoga");
+        Trainer trainer = new Trainer();
+        trainer.setId(id);
+        trainer.setUsername(username);
+        trainer.setSpecialization(specialization);
+        return trainer;
+    }
+}
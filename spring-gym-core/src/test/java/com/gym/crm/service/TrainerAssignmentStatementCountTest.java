@@ -0,0 +1,143 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.model.Trainee;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.TrainingType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reassigning trainers touches only the changed {@code trainee_trainer} rows. With the old bag mapping, swapping
+ * one of N trainers deleted all N rows and inserted N again. Runs with 200 assigned trainers by default;
+ * more via {@code -Dbenchmark.assigned-trainers=5000}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainerAssignmentStatementCountTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainerAssignmentStatementCountTest.class);
+    private static final int ASSIGNED = Integer.getInteger("benchmark.assigned-trainers", 200);
+    private static final String TRAINEE = "assignment.trainee";
+    private static final int MAX_STATEMENTS = 8;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate.executeWithoutResult(status -> {
+            TrainingType specialization = entityManager.find(TrainingType.class, 1L);
+            for (int i = 0; i <= ASSIGNED; i++) {
+                Trainer trainer = new Trainer();
+                trainer.setFirstName("Assignment");
+                trainer.setLastName("Trainer" + i);
+                trainer.setUsername("assignment.trainer" + i);
+                trainer.setPassword("hash");
+                trainer.setActive(true);
+                trainer.setSpecialization(specialization);
+                entityManager.persist(trainer);
+            }
+            Trainee trainee = new Trainee();
+            trainee.setFirstName("Assignment");
+            trainee.setLastName("Trainee");
+            trainee.setUsername(TRAINEE);
+            trainee.setPassword("hash");
+            trainee.setActive(true);
+            entityManager.persist(trainee);
+        });
+        traineeService.updateTraineeTrainersList(TRAINEE, trainerUsernames(0, ASSIGNED));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainee_trainer WHERE trainee_id IN (SELECT id FROM users WHERE username = ?)", TRAINEE);
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username = ?)", TRAINEE);
+        jdbcTemplate.update("DELETE FROM trainers WHERE id IN (SELECT id FROM users WHERE username LIKE 'assignment.trainer%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'assignment.%'");
+        // The deletes bypass Hibernate; JPA's evictAll() would keep the natural-id entries, so drop every region
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void updateTraineeTrainersList_ShouldOnlyWriteChangedRows_WhenOneTrainerIsSwapped() {
+        // Drop trainer 0, add trainer ASSIGNED; the other ASSIGNED - 1 stay
+        List<String> requested = trainerUsernames(1, ASSIGNED + 1);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        List<Trainer> trainers = traineeService.updateTraineeTrainersList(TRAINEE, requested).orElseThrow();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        LOGGER.info("Swapped 1 of {} trainers in {} us with {} statements",
+                ASSIGNED, elapsedMicros, statistics.getPrepareStatementCount());
+        assertEquals(ASSIGNED, trainers.size());
+        // Trainee lookup, requested trainers, current assignments, one delete, one insert: independent of ASSIGNED
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "Expected a diff, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(ASSIGNED, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trainee_trainer tt JOIN users u ON u.id = tt.trainee_id WHERE u.username = ?",
+                Integer.class, TRAINEE));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trainee_trainer tt JOIN users u ON u.id = tt.trainer_id WHERE u.username = ?",
+                Integer.class, "assignment.trainer0"));
+    }
+
+    @Test
+    void updateTraineeTrainersList_ShouldWriteNothing_WhenListIsUnchanged() {
+        statistics.clear();
+        traineeService.updateTraineeTrainersList(TRAINEE, trainerUsernames(0, ASSIGNED));
+
+        assertEquals(0, statistics.getCollectionUpdateCount());
+        assertEquals(0, statistics.getCollectionRemoveCount());
+    }
+
+    private static List<String> trainerUsernames(int from, int to) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            usernames.add("assignment.trainer" + i);
+        }
+        return usernames;
+    }
+}
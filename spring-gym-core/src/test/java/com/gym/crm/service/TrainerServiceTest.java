@@ -8,11 +8,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder; 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,7 +34,13 @@ class TrainerServiceTest {
     @Mock
     private UserService userService;
     @Mock
-    private PasswordEncoder passwordEncoder; 
+    private ActiveTrainerIndex activeTrainerIndex;
+    @Mock
+    private TrainingParticipantCache participantCache;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
 
     @InjectMocks
     private TrainerService trainerService;
@@ -89,86 +101,50 @@ class TrainerServiceTest {
     }
 
     @Test
-    void checkTrainerCredentials_ShouldReturnTrue_WhenCorrect() {
-        String plainPassword = "oldPassword";
-        when(trainerDAO.findByUsername("test.trainer")).thenReturn(Optional.of(testTrainer));
-        when(passwordEncoder.matches(plainPassword, encodedPassword)).thenReturn(true); 
-
-        assertTrue(trainerService.checkTrainerCredentials("test.trainer", plainPassword));
-        verify(passwordEncoder, times(1)).matches(plainPassword, encodedPassword);
-    }
-
-    @Test
-    void checkTrainerCredentials_ShouldReturnFalse_WhenPasswordIncorrect() {
-        String wrongPlainPassword = "wrongPassword";
-        when(trainerDAO.findByUsername("test.trainer")).thenReturn(Optional.of(testTrainer));
-        when(passwordEncoder.matches(wrongPlainPassword, encodedPassword)).thenReturn(false); 
-
-        assertFalse(trainerService.checkTrainerCredentials("test.trainer", wrongPlainPassword));
-        verify(passwordEncoder, times(1)).matches(wrongPlainPassword, encodedPassword);
-    }
-
-    @Test
-    void checkTrainerCredentials_ShouldReturnFalse_WhenTrainerNotFound() {
-        String username = "nonexistent.trainer";
-        when(trainerDAO.findByUsername(username)).thenReturn(Optional.empty());
-
-        assertFalse(trainerService.checkTrainerCredentials(username, "anyPassword"));
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    void createTrainerProfile_ShouldHashPassword_BeforeOpeningTransaction() {
+        when(userService.generatePlainPassword()).thenReturn("randomPass");
+        when(userService.encodePassword("randomPass")).thenReturn("encodedRandomPass");
+        when(userService.generateUsername(anyString(), anyString())).thenReturn("new.user");
+        when(trainerDAO.save(any(Trainer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        trainerService.createTrainerProfile("New", "Trainer", testSpecialization);
+
+        InOrder inOrder = inOrder(userService, transactionManager, trainerDAO);
+        inOrder.verify(userService).encodePassword("randomPass");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userService).generateUsername(anyString(), anyString());
+        inOrder.verify(trainerDAO).save(any(Trainer.class));
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
-    void changeTrainerPassword_ShouldSucceed_WhenCredentialsAreCorrect() {
-        String username = "test.trainer";
-        String oldPasswordPlain = "oldPassword";
-        String newPasswordPlain = "newPassword";
-        String newPasswordEncoded = "encodedNewPassword";
-
-        when(trainerDAO.findByUsername(username)).thenReturn(Optional.of(testTrainer));
-        when(passwordEncoder.matches(oldPasswordPlain, encodedPassword)).thenReturn(true);
-        when(passwordEncoder.encode(newPasswordPlain)).thenReturn(newPasswordEncoded);
-
-        boolean result = trainerService.changeTrainerPassword(username, oldPasswordPlain, newPasswordPlain);
-
-        assertTrue(result);
-        assertEquals(newPasswordEncoded, testTrainer.getPassword()); 
-
-        verify(passwordEncoder, times(1)).matches(oldPasswordPlain, encodedPassword);
-        verify(passwordEncoder, times(1)).encode(newPasswordPlain);
+    void createTrainerProfile_ShouldRetry_WhenUsernameWasTakenConcurrently() {
+        when(userService.generatePlainPassword()).thenReturn("randomPass");
+        when(userService.encodePassword("randomPass")).thenReturn("encodedRandomPass");
+        when(userService.generateUsername("New", "Trainer")).thenReturn("new.trainer").thenReturn("new.trainer1");
+        when(trainerDAO.save(any(Trainer.class)))
+                .thenThrow(integrityViolation("PUBLIC.UK_USERS_USERNAME_INDEX_6"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals("new.trainer1", trainerService.createTrainerProfile("New", "Trainer", testSpecialization).getUsername());
+        verify(trainerDAO, times(2)).save(any(Trainer.class));
     }
 
     @Test
-    void changeTrainerPassword_ShouldFail_WhenOldPasswordIsIncorrect() {
-        String username = "test.trainer";
-        String wrongOldPasswordPlain = "wrongPassword";
-        String newPasswordPlain = "newPassword";
-
-        when(trainerDAO.findByUsername(username)).thenReturn(Optional.of(testTrainer));
-        when(passwordEncoder.matches(wrongOldPasswordPlain, encodedPassword)).thenReturn(false); 
-
-        boolean result = trainerService.changeTrainerPassword(username, wrongOldPasswordPlain, newPasswordPlain);
-
-        assertFalse(result);
-        assertEquals(encodedPassword, testTrainer.getPassword()); 
-
-        verify(passwordEncoder, times(1)).matches(wrongOldPasswordPlain, encodedPassword);
-        verify(passwordEncoder, never()).encode(anyString());
-        verify(trainerDAO, never()).save(any(Trainer.class));
+    void createTrainerProfile_ShouldNotRetry_WhenAnotherConstraintFails() {
+        when(userService.generatePlainPassword()).thenReturn("randomPass");
+        when(userService.encodePassword("randomPass")).thenReturn("encodedRandomPass");
+        when(userService.generateUsername("New", "Trainer")).thenReturn("new.trainer");
+        when(trainerDAO.save(any(Trainer.class))).thenThrow(integrityViolation("PUBLIC.FK_TRAINERS_SPECIALIZATION"));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> trainerService.createTrainerProfile("New", "Trainer", testSpecialization));
+        verify(trainerDAO, times(1)).save(any(Trainer.class));
     }
 
-    @Test
-    void changeTrainerPassword_ShouldFail_WhenTrainerNotFound() {
-        String username = "nonexistent.trainer";
-        String oldPasswordPlain = "oldPassword";
-        String newPasswordPlain = "newPassword";
-        when(trainerDAO.findByUsername(username)).thenReturn(Optional.empty());
-
-        boolean result = trainerService.changeTrainerPassword(username, oldPasswordPlain, newPasswordPlain);
-
-        assertFalse(result);
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(passwordEncoder, never()).encode(anyString());
-        verify(trainerDAO, never()).save(any(Trainer.class));
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraintName));
     }
 
     @Test
@@ -181,7 +157,7 @@ class TrainerServiceTest {
         newSpecialization.setTrainingTypeName("Yoga");
         boolean updatedIsActive = false;
 
-        when(trainerDAO.findByUsername(username)).thenReturn(Optional.of(testTrainer));
+        when(trainerDAO.findProfileGraphByUsername(username)).thenReturn(Optional.of(testTrainer));
 
         Optional<Trainer> updatedTrainerOpt = trainerService.updateTrainerProfile(
                 username, updatedFirstName, updatedLastName, newSpecialization, updatedIsActive);
@@ -192,12 +168,13 @@ class TrainerServiceTest {
         assertEquals(updatedLastName, updatedTrainer.getLastName());
         assertEquals(newSpecialization, updatedTrainer.getSpecialization());
         assertEquals(updatedIsActive, updatedTrainer.isActive());
+        verify(participantCache).evictTrainer(username);
     }
 
     @Test
     void updateTrainerProfile_ShouldReturnEmpty_WhenTrainerNotFound() {
         String username = "nonexistent.trainer";
-        when(trainerDAO.findByUsername(username)).thenReturn(Optional.empty());
+        when(trainerDAO.findProfileGraphByUsername(username)).thenReturn(Optional.empty());
 
         Optional<Trainer> updatedTrainerOpt = trainerService.updateTrainerProfile(
                 username, "Any", "Any", testSpecialization, true);
@@ -216,6 +193,8 @@ class TrainerServiceTest {
 
         assertTrue(result);
         assertFalse(testTrainer.isActive());
+        verify(activeTrainerIndex).invalidate();
+        verify(participantCache).evictTrainer(username);
     }
 
      @Test
@@ -239,6 +218,7 @@ class TrainerServiceTest {
         boolean result = trainerService.activateDeactivateTrainer(username, false);
 
         assertFalse(result);
+        verifyNoInteractions(activeTrainerIndex, participantCache);
     }
 
 }
\ No newline at end of file
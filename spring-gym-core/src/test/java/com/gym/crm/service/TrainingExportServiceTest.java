@@ -0,0 +1,140 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Export row counts, and bounded heap growth in the benchmark run: 50k rows by default,
+ * {@code -Dbenchmark.export-rows=1000000} for the full run.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingExportServiceTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrainingExportServiceTest.class);
+    private static final int ROWS = Integer.getInteger("benchmark.export-rows", 50_000);
+    // More than one fetch and one persistence-context clear
+    private static final int STREAMED_ROWS = 2_500;
+    // Room for GC noise; keeping even the default 50k rows (hundreds of bytes each) would retain tens of MB
+    private static final long MAX_RETAINED_HEAP_BYTES = 8L * 1024 * 1024;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TrainingExportService trainingExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE training_name LIKE 'export-%'");
+    }
+
+    @Test
+    void exportTraineeTrainings_ShouldStreamEveryRow() throws Exception {
+        insertTrainings(STREAMED_ROWS);
+        CountingOutputStream out = new CountingOutputStream();
+
+        long written = trainingExportService.exportTraineeTrainings(
+                "sarah.wilson", null, null, null, null, ExportFormat.NDJSON, out);
+
+        assertEquals(STREAMED_ROWS, written);
+        assertEquals(STREAMED_ROWS, out.lines);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void exportTraineeTrainings_ShouldStreamEveryRow_WithFlatHeap() throws Exception {
+        insertTrainings(ROWS);
+        CountingOutputStream out = new CountingOutputStream();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long written = trainingExportService.exportTraineeTrainings(
+                "sarah.wilson", null, null, null, null, ExportFormat.NDJSON, out);
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+
+        LOGGER.info("Exported {} rows ({} bytes), retained heap delta {} KB",
+                written, out.bytes, (heapAfter - heapBefore) / 1024);
+        assertEquals(ROWS, written);
+        assertEquals(ROWS, out.lines);
+        assertTrue(heapAfter - heapBefore < MAX_RETAINED_HEAP_BYTES,
+                "Export retained " + (heapAfter - heapBefore) / 1024 + " KB");
+    }
+
+    @Test
+    void exportTrainerTrainings_ShouldWriteCsvWithHeaderAndEscaping() throws Exception {
+        jdbcTemplate.update("INSERT INTO trainings (trainee_id, trainer_id, training_type_id, training_name, training_date, training_duration) " +
+                "VALUES (4, 2, 3, 'export-\"morning\", flow', DATE '2025-03-01', 45)");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = trainingExportService.exportTrainerTrainings("jane.doe", null, null, "Wilson", ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, written);
+        assertEquals("trainingName,trainingDate,trainingType,trainingDuration,partnerUsername", lines[0]);
+        assertEquals("\"export-\"\"morning\"\", flow\",2025-03-01,Yoga,45,sarah.wilson", lines[1]);
+    }
+
+    private void insertTrainings(int rows) {
+        LocalDate firstDay = LocalDate.of(2010, 1, 1);
+        for (int start = 0; start < rows; start += 10_000) {
+            List<Object[]> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(rows, start + 10_000); i++) {
+                batch.add(new Object[]{"export-" + i, Date.valueOf(firstDay.plusDays(i % 5_000)), 30 + i % 60});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO trainings (trainee_id, trainer_id, training_type_id, training_name, " +
+                    "training_date, training_duration) VALUES (4, 1, 2, ?, ?, ?)", batch);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
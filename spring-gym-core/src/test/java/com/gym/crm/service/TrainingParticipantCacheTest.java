@@ -0,0 +1,68 @@
+package com.gym.crm.service;
+
+import com.gym.crm.dao.TraineeDAO;
+import com.gym.crm.dao.TrainerDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingParticipantCacheTest {
+
+    private static final TrainerDAO.TrainerSummary TRAINER =
+            new TrainerDAO.TrainerSummary(1L, "john.smith", "John", "Smith", true);
+
+    @Mock
+    private TraineeDAO traineeDAO;
+    @Mock
+    private TrainerDAO trainerDAO;
+
+    private TrainingParticipantCache participantCache;
+
+    @BeforeEach
+    void setUp() {
+        participantCache = new TrainingParticipantCache(traineeDAO, trainerDAO, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void traineeId_ShouldQueryOnce_ForRepeatedLookups() {
+        when(traineeDAO.findIdByUsername("mike.johnson")).thenReturn(Optional.of(3L));
+
+        assertEquals(Optional.of(3L), participantCache.traineeId("mike.johnson"));
+        assertEquals(Optional.of(3L), participantCache.traineeId("mike.johnson"));
+
+        verify(traineeDAO, times(1)).findIdByUsername("mike.johnson");
+    }
+
+    @Test
+    void traineeId_ShouldNotCacheUnknownUsername() {
+        when(traineeDAO.findIdByUsername("new.trainee")).thenReturn(Optional.empty()).thenReturn(Optional.of(7L));
+
+        assertTrue(participantCache.traineeId("new.trainee").isEmpty());
+        assertEquals(Optional.of(7L), participantCache.traineeId("new.trainee"));
+    }
+
+    @Test
+    void trainer_ShouldReload_AfterEviction() {
+        TrainerDAO.TrainerSummary deactivated = new TrainerDAO.TrainerSummary(1L, "john.smith", "John", "Smith", false);
+        when(trainerDAO.findSummaryByUsername("john.smith"))
+                .thenReturn(Optional.of(TRAINER))
+                .thenReturn(Optional.of(deactivated));
+
+        assertEquals(Optional.of(TRAINER), participantCache.trainer("john.smith"));
+        assertEquals(Optional.of(TRAINER), participantCache.trainer("john.smith"));
+
+        participantCache.evictTrainer("john.smith");
+
+        assertEquals(Optional.of(deactivated), participantCache.trainer("john.smith"));
+        verify(trainerDAO, times(2)).findSummaryByUsername("john.smith");
+    }
+}
@@ -3,6 +3,12 @@ package com.gym.crm.service;
 import com.gym.crm.dao.TraineeDAO;
 import com.gym.crm.dao.TrainerDAO;
 import com.gym.crm.dao.TrainingDAO;
+import com.gym.crm.dto.WorkloadRequest;
+import com.gym.crm.dto.training.AddTrainingRequestDto;
+import com.gym.crm.dto.training.BatchTrainingItemResultDto;
+import com.gym.crm.dto.training.BatchTrainingResponseDto;
+import com.gym.crm.dto.trainer.FutureTrainingsCancellationDto;
+import com.gym.crm.messaging.WorkloadMessageProducer;
 import com.gym.crm.model.Trainee;
 import com.gym.crm.model.Trainer;
 import com.gym.crm.model.Training;
@@ -11,15 +17,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +44,15 @@ class TrainingServiceTest {
     private TraineeDAO traineeDAO;
     @Mock
     private TrainerDAO trainerDAO;
+    @Mock
+    private TrainingTypeService trainingTypeService;
+    @Mock
+    private WorkloadMessageProducer messageProducer;
+    @Mock
+    private TrainingParticipantCache participantCache;
+
+    @Captor
+    private ArgumentCaptor<List<TrainingDAO.NewTraining>> rows;
 
     @InjectMocks
     private TrainingService trainingService;
@@ -64,8 +86,11 @@ class TrainingServiceTest {
         String trainingName = "Morning Yoga";
         int duration = 60;
 
-        when(traineeDAO.findByUsername(traineeUsername)).thenReturn(Optional.of(testTrainee));
-        when(trainerDAO.findByUsername(trainerUsername)).thenReturn(Optional.of(testTrainer));
+        when(participantCache.traineeId(traineeUsername)).thenReturn(Optional.of(1L));
+        when(participantCache.trainer(trainerUsername)).thenReturn(Optional.of(
+                new TrainerDAO.TrainerSummary(2L, trainerUsername, "Test", "Trainer", true)));
+        when(traineeDAO.getReference(1L)).thenReturn(testTrainee);
+        when(trainerDAO.getReference(2L)).thenReturn(testTrainer);
 
         ArgumentCaptor<Training> trainingCaptor = ArgumentCaptor.forClass(Training.class);
         when(trainingDAO.save(trainingCaptor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -83,6 +108,8 @@ class TrainingServiceTest {
         assertEquals(duration, result.getTrainingDuration());
 
         verify(trainingDAO, times(1)).save(any(Training.class));
+        verify(traineeDAO, never()).findByUsername(any());
+        verify(trainerDAO, never()).findByUsername(any());
 
         Training capturedTraining = trainingCaptor.getValue();
         assertEquals(testTrainee, capturedTraining.getTrainee());
@@ -91,15 +118,25 @@ class TrainingServiceTest {
         assertEquals(testTrainingType, capturedTraining.getTrainingType());
         assertEquals(testDate, capturedTraining.getTrainingDate());
         assertEquals(duration, capturedTraining.getTrainingDuration());
-        assertNull(capturedTraining.getId()); 
+        assertNull(capturedTraining.getId());
+
+        ArgumentCaptor<WorkloadRequest> workloadCaptor = ArgumentCaptor.forClass(WorkloadRequest.class);
+        verify(messageProducer).sendWorkloadMessage(workloadCaptor.capture());
+        WorkloadRequest workload = workloadCaptor.getValue();
+        assertEquals(trainerUsername, workload.getTrainerUsername());
+        assertEquals("Test", workload.getTrainerFirstName());
+        assertEquals("Trainer", workload.getTrainerLastName());
+        assertEquals(duration, workload.getTrainingDuration());
+        assertEquals(WorkloadRequest.ActionType.ADD, workload.getActionType());
     }
 
     @Test
     void addTraining_ShouldReturnNull_WhenTraineeNotFound() {
         String traineeUsername = "unknown.trainee";
         String trainerUsername = "test.trainer";
-        when(traineeDAO.findByUsername(traineeUsername)).thenReturn(Optional.empty());
-        when(trainerDAO.findByUsername(trainerUsername)).thenReturn(Optional.of(testTrainer));
+        when(participantCache.traineeId(traineeUsername)).thenReturn(Optional.empty());
+        when(participantCache.trainer(trainerUsername)).thenReturn(Optional.of(
+                new TrainerDAO.TrainerSummary(2L, trainerUsername, "Test", "Trainer", true)));
 
         Training result = trainingService.addTraining(
                 traineeUsername, trainerUsername, "Morning Yoga",
@@ -108,14 +145,15 @@ class TrainingServiceTest {
         assertNull(result);
 
         verify(trainingDAO, never()).save(any(Training.class));
+        verifyNoInteractions(messageProducer);
     }
 
     @Test
     void addTraining_ShouldReturnNull_WhenTrainerNotFound() {
         String traineeUsername = "test.trainee";
         String trainerUsername = "unknown.trainer";
-        when(traineeDAO.findByUsername(traineeUsername)).thenReturn(Optional.of(testTrainee));
-        when(trainerDAO.findByUsername(trainerUsername)).thenReturn(Optional.empty());
+        when(participantCache.traineeId(traineeUsername)).thenReturn(Optional.of(1L));
+        when(participantCache.trainer(trainerUsername)).thenReturn(Optional.empty());
 
         Training result = trainingService.addTraining(
                 traineeUsername, trainerUsername, "Morning Yoga",
@@ -124,5 +162,121 @@ class TrainingServiceTest {
         assertNull(result);
 
         verify(trainingDAO, never()).save(any(Training.class));
+        verifyNoInteractions(messageProducer);
+    }
+
+    @Test
+    void addTrainings_ShouldInsertResolvedEntries_AndRejectUnknownReferences() {
+        testTrainer.setFirstName("Test");
+        testTrainer.setLastName("Trainer");
+        testTrainer.setActive(true);
+        when(traineeDAO.findIdsByUsernames(any())).thenReturn(Map.of("test.trainee", 1L));
+        when(trainerDAO.findByUsernames(any())).thenReturn(List.of(testTrainer));
+        when(trainingTypeService.findById(anyLong())).thenReturn(Optional.of(testTrainingType));
+
+        List<AddTrainingRequestDto> requests = List.of(
+                request("test.trainee", "test.trainer", LocalDate.of(2026, 3, 2), 60),
+                request("unknown.trainee", "test.trainer", LocalDate.of(2026, 3, 3), 45),
+                request("test.trainee", "test.trainer", LocalDate.of(2026, 3, 20), 30),
+                request("test.trainee", "test.trainer", LocalDate.of(2026, 4, 1), 90));
+
+        BatchTrainingResponseDto response = trainingService.addTrainings(requests);
+
+        assertEquals(3, response.getCreated());
+        assertEquals(1, response.getRejected());
+        BatchTrainingItemResultDto rejected = response.getResults().get(1);
+        assertEquals(1, rejected.getIndex());
+        assertEquals(BatchTrainingItemResultDto.Status.REJECTED, rejected.getStatus());
+        assertEquals("Trainee not found: unknown.trainee", rejected.getMessage());
+
+        verify(trainingDAO).insertAll(rows.capture());
+        assertEquals(3, rows.getValue().size());
+        assertEquals(new TrainingDAO.NewTraining(1L, 2L, 1L, "Session", LocalDate.of(2026, 3, 2), 60),
+                rows.getValue().get(0));
+
+        // Four requests collapse to one workload message per trainer and month
+        ArgumentCaptor<WorkloadRequest> messages = ArgumentCaptor.forClass(WorkloadRequest.class);
+        verify(messageProducer, times(2)).sendWorkloadMessage(messages.capture());
+        assertEquals(LocalDate.of(2026, 3, 1), messages.getAllValues().get(0).getTrainingDate());
+        assertEquals(90, messages.getAllValues().get(0).getTrainingDuration());
+        assertEquals(LocalDate.of(2026, 4, 1), messages.getAllValues().get(1).getTrainingDate());
+        assertEquals(90, messages.getAllValues().get(1).getTrainingDuration());
+        verify(traineeDAO, never()).findByUsername(any());
+        verify(trainerDAO, never()).findByUsername(any());
+    }
+
+    @Test
+    void cancelFutureTrainings_ShouldDeleteLockedRows_AndSendOneDeletePerMonth() {
+        when(trainerDAO.findByUsername("test.trainer")).thenReturn(Optional.of(testTrainer));
+        List<TrainingDAO.LockedTraining> locked = List.of(
+                new TrainingDAO.LockedTraining(11L, 2L, LocalDate.of(2030, 5, 3), 120),
+                new TrainingDAO.LockedTraining(12L, 2L, LocalDate.of(2030, 6, 1), 60),
+                new TrainingDAO.LockedTraining(13L, 2L, LocalDate.of(2030, 5, 20), 120));
+        when(trainingDAO.lockTrainerTrainingsAfter(eq(2L), any(LocalDate.class))).thenReturn(locked);
+        when(trainingDAO.deleteTrainerTrainings(2L, List.of(11L, 12L, 13L))).thenReturn(3);
+
+        FutureTrainingsCancellationDto result = trainingService.cancelFutureTrainings("test.trainer").orElseThrow();
+
+        assertEquals(3, result.getCancelledTrainings());
+        assertEquals(2, result.getWorkloadUpdates());
+        InOrder inOrder = inOrder(trainingDAO);
+        inOrder.verify(trainingDAO).lockTrainerTrainingsAfter(eq(2L), any(LocalDate.class));
+        inOrder.verify(trainingDAO).deleteTrainerTrainings(2L, List.of(11L, 12L, 13L));
+        ArgumentCaptor<WorkloadRequest> messages = ArgumentCaptor.forClass(WorkloadRequest.class);
+        verify(messageProducer, times(2)).sendWorkloadMessage(messages.capture());
+        WorkloadRequest may = messages.getAllValues().get(0);
+        assertEquals(WorkloadRequest.ActionType.DELETE, may.getActionType());
+        assertEquals(LocalDate.of(2030, 5, 1), may.getTrainingDate());
+        assertEquals(240, may.getTrainingDuration());
+        assertEquals("test.trainer", may.getTrainerUsername());
+        assertEquals(60, messages.getAllValues().get(1).getTrainingDuration());
+    }
+
+    @Test
+    void cancelFutureTrainings_ShouldReturnEmpty_WhenTrainerNotFound() {
+        when(trainerDAO.findByUsername("unknown.trainer")).thenReturn(Optional.empty());
+
+        assertTrue(trainingService.cancelFutureTrainings("unknown.trainer").isEmpty());
+        verify(trainingDAO, never()).deleteTrainerTrainings(anyLong(), any());
+        verifyNoInteractions(messageProducer);
+    }
+
+    @Test
+    void deleteTraineeTrainings_ShouldDeleteLockedRows_AndSendOneDeletePerTrainerAndFutureMonth() {
+        Trainer otherTrainer = new Trainer();
+        otherTrainer.setId(3L);
+        otherTrainer.setUsername("other.trainer");
+        List<TrainingDAO.LockedTraining> locked = List.of(
+                new TrainingDAO.LockedTraining(21L, 2L, LocalDate.of(2020, 1, 10), 45),
+                new TrainingDAO.LockedTraining(22L, 2L, LocalDate.of(2030, 5, 3), 120),
+                new TrainingDAO.LockedTraining(23L, 3L, LocalDate.of(2030, 6, 1), 60));
+        when(trainingDAO.lockTraineeTrainings(1L)).thenReturn(locked);
+        when(trainingDAO.deleteTraineeTrainings(1L, List.of(21L, 22L, 23L))).thenReturn(3);
+        when(trainerDAO.findByIds(Set.of(2L, 3L))).thenReturn(List.of(testTrainer, otherTrainer));
+
+        assertEquals(3, trainingService.deleteTraineeTrainings(testTrainee));
+
+        InOrder inOrder = inOrder(trainingDAO);
+        inOrder.verify(trainingDAO).lockTraineeTrainings(1L);
+        inOrder.verify(trainingDAO).deleteTraineeTrainings(1L, List.of(21L, 22L, 23L));
+        verify(trainerDAO, times(1)).findByIds(Set.of(2L, 3L));
+        verify(trainerDAO, never()).findById(anyLong());
+        ArgumentCaptor<WorkloadRequest> messages = ArgumentCaptor.forClass(WorkloadRequest.class);
+        verify(messageProducer, times(2)).sendWorkloadMessage(messages.capture());
+        assertEquals(List.of(120, 60),
+                messages.getAllValues().stream().map(WorkloadRequest::getTrainingDuration).toList());
+        assertTrue(messages.getAllValues().stream()
+                .allMatch(message -> message.getActionType() == WorkloadRequest.ActionType.DELETE));
+    }
+
+    private static AddTrainingRequestDto request(String trainee, String trainer, LocalDate date, int duration) {
+        AddTrainingRequestDto request = new AddTrainingRequestDto();
+        request.setTraineeUsername(trainee);
+        request.setTrainerUsername(trainer);
+        request.setTrainingName("Session");
+        request.setTrainingDate(date);
+        request.setTrainingDuration(duration);
+        request.setTrainingTypeId(1L);
+        return request;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.model.Trainer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TrainingTypeRegistryTest {
+
+    private static final int REQUESTS = 1_000;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TrainingTypeService trainingTypeService;
+
+    @Autowired
+    private TrainerDAO trainerDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        trainingTypeService.refresh();
+    }
+
+    @Test
+    void lookups_ShouldNotTouchDatabase() {
+        statistics.clear();
+        for (int i = 0; i < REQUESTS; i++) {
+            assertTrue(trainingTypeService.findById(1L + i % 5).isPresent());
+            assertEquals(5, trainingTypeService.findAll().size());
+        }
+
+        // Previously one statement per lookup: 2,000 for these 1,000 add-training + list-types requests.
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(trainingTypeService.findById(999L).isEmpty());
+    }
+
+    @Test
+    void trainerSpecialization_ShouldResolveFromSecondLevelCache() {
+        statistics.clear();
+        List<Trainer> trainers = transactionTemplate.execute(status -> {
+            List<Trainer> loaded = trainerDAO.findAll();
+            loaded.forEach(trainer -> assertNotNull(trainer.getSpecialization().getTrainingTypeName()));
+            return loaded;
+        });
+
+        assertFalse(trainers.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void findAll_ShouldReturnImmutableSnapshot() {
+        assertThrows(UnsupportedOperationException.class, () -> trainingTypeService.findAll().clear());
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.crm.service;
+
+import com.gym.crm.dao.TrainingTypeDAO;
+import com.gym.crm.model.TrainingType;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingTypeServiceTest {
+
+    @Mock
+    private TrainingTypeDAO trainingTypeDAO;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TrainingTypeService trainingTypeService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        trainingTypeService = new TrainingTypeService(trainingTypeDAO, entityManagerFactory, transactionManager);
+    }
+
+    @Test
+    void findAll_ShouldLoadRegistryInReadOnlyTransaction_OnFirstUse() {
+        TrainingType yoga = new TrainingType();
+        yoga.setId(3L);
+        yoga.setTrainingTypeName("Yoga");
+        when(trainingTypeDAO.findAll()).thenReturn(List.of(yoga));
+
+        assertEquals(List.of(yoga), trainingTypeService.findAll());
+        assertEquals(yoga, trainingTypeService.findById(3L).orElseThrow());
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        InOrder inOrder = inOrder(transactionManager, trainingTypeDAO);
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(trainingTypeDAO).findAll();
+        inOrder.verify(transactionManager).commit(any());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(trainingTypeDAO, times(1)).findAll();
+    }
+}
@@ -0,0 +1,196 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import com.gym.crm.dao.TrainerDAO;
+import com.gym.crm.dto.CursorPageDto;
+import com.gym.crm.dto.trainee.TrainerInfoDto;
+import com.gym.crm.model.Trainer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unassigned-trainers listing through the active trainer index, checked page by page against the anti-join. The
+ * latency comparison seeds 50k trainers (override with {@code -Dbenchmark.trainers=N}) and runs with
+ * {@code -Pbenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UnassignedTrainersLatencyTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnassignedTrainersLatencyTest.class);
+    private static final int TRAINERS = Integer.getInteger("benchmark.trainers", 50_000);
+    private static final int SEEDED_TRAINERS = 2_000;
+    private static final int ASSIGNED_EVERY = 100;
+    private static final int INACTIVE_EVERY = 10;
+    private static final int PAGE_SIZE = 100;
+    private static final String TRAINEE = "mike.johnson";
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private TrainerDAO trainerDAO;
+
+    @Autowired
+    private ActiveTrainerIndex activeTrainerIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long traineeId;
+
+    @AfterEach
+    void tearDown() {
+        String latencyTrainers = "(SELECT id FROM users WHERE username LIKE 'latency.trainer.%')";
+        jdbcTemplate.update("DELETE FROM trainee_trainer WHERE trainer_id IN " + latencyTrainers);
+        jdbcTemplate.update("DELETE FROM trainers WHERE id IN " + latencyTrainers);
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'latency.trainer.%'");
+        // The next test seeds the same usernames under new ids; stale natural-id entries would resolve them to the
+        // deleted rows, and JPA's evictAll() only drops entity data
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        activeTrainerIndex.invalidate();
+    }
+
+    @Test
+    void getUnassignedTrainersPage_ShouldMatchAntiJoin_AcrossAllPages() {
+        seed(SEEDED_TRAINERS);
+        Integer expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainers t JOIN users u ON u.id = t.id " +
+                "WHERE u.is_active AND NOT EXISTS (SELECT 1 FROM trainee_trainer tt " +
+                "WHERE tt.trainee_id = ? AND tt.trainer_id = t.id)", Integer.class, traineeId);
+
+        int listed = 0;
+        long afterId = 0;
+        String cursor = null;
+        do {
+            CursorPageDto<TrainerInfoDto> page = traineeService.getUnassignedTrainersPage(TRAINEE, cursor, PAGE_SIZE)
+                    .orElseThrow();
+            long antiJoinAfter = afterId;
+            List<Trainer> antiJoinPage = transactionTemplate.execute(status ->
+                    trainerDAO.findUnassignedPageAfter(traineeId, antiJoinAfter, PAGE_SIZE));
+
+            assertEquals(antiJoinPage.stream().map(Trainer::getUsername).toList(),
+                    page.getItems().stream().map(TrainerInfoDto::getUsername).toList());
+            listed += page.getItems().size();
+            if (!antiJoinPage.isEmpty()) {
+                afterId = antiJoinPage.get(antiJoinPage.size() - 1).getId();
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, listed);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void getUnassignedTrainersPage_ShouldReportPageLatency_ForIndexAndAntiJoin() {
+        seed(TRAINERS);
+
+        // First call pays for building the index
+        long buildStart = System.nanoTime();
+        traineeService.getUnassignedTrainersPage(TRAINEE, null, PAGE_SIZE);
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<Long> indexNanos = new ArrayList<>();
+        List<Long> antiJoinNanos = new ArrayList<>();
+        int listed = 0;
+        long afterId = 0;
+        String cursor = null;
+        do {
+            long start = System.nanoTime();
+            CursorPageDto<TrainerInfoDto> page = traineeService.getUnassignedTrainersPage(TRAINEE, cursor, PAGE_SIZE)
+                    .orElseThrow();
+            indexNanos.add(System.nanoTime() - start);
+
+            long antiJoinAfter = afterId;
+            start = System.nanoTime();
+            List<Trainer> antiJoinPage = transactionTemplate.execute(status ->
+                    trainerDAO.findUnassignedPageAfter(traineeId, antiJoinAfter, PAGE_SIZE));
+            antiJoinNanos.add(System.nanoTime() - start);
+
+            listed += page.getItems().size();
+            if (!antiJoinPage.isEmpty()) {
+                afterId = antiJoinPage.get(antiJoinPage.size() - 1).getId();
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        LOGGER.info("Unassigned trainers over {} trainers: {} listed in {} pages, index built in {} ms",
+                TRAINERS, listed, indexNanos.size(), buildMillis);
+        LOGGER.info("  index page:     p50 {} us, p95 {} us",
+                percentileMicros(indexNanos, 50), percentileMicros(indexNanos, 95));
+        LOGGER.info("  anti-join page: p50 {} us, p95 {} us",
+                percentileMicros(antiJoinNanos, 50), percentileMicros(antiJoinNanos, 95));
+    }
+
+    @Test
+    void getUnassignedTrainersPage_ShouldDropTrainer_WhenDeactivated() {
+        seed(SEEDED_TRAINERS);
+        // Only touch seeded trainers; the fixture trainers are shared with other tests
+        String first = traineeService.getUnassignedTrainersPage(TRAINEE, null, PAGE_SIZE).orElseThrow()
+                .getItems().stream().map(TrainerInfoDto::getUsername)
+                .filter(username -> username.startsWith("latency.trainer.")).findFirst().orElseThrow();
+
+        assertTrue(trainerService.activateDeactivateTrainer(first, false));
+
+        List<String> usernames = traineeService.getUnassignedTrainersPage(TRAINEE, null, PAGE_SIZE).orElseThrow()
+                .getItems().stream().map(TrainerInfoDto::getUsername).toList();
+        assertFalse(usernames.contains(first));
+    }
+
+    private void seed(int trainers) {
+        List<Object[]> users = new ArrayList<>(trainers);
+        for (int i = 0; i < trainers; i++) {
+            users.add(new Object[]{"Latency", "Trainer" + i, "latency.trainer." + i, "{noop}secret",
+                    i % INACTIVE_EVERY != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (first_name, last_name, username, password, is_active, " +
+                "user_type, specialization_id) VALUES (?, ?, ?, ?, ?, 'TRAINER', 1)", users);
+        jdbcTemplate.update("INSERT INTO trainers (id, specialization_id) " +
+                "SELECT id, 1 FROM users WHERE username LIKE 'latency.trainer.%'");
+
+        traineeId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, TRAINEE);
+        jdbcTemplate.update("INSERT INTO trainee_trainer (trainee_id, trainer_id) " +
+                "SELECT ?, id FROM users WHERE username LIKE 'latency.trainer.%' AND MOD(id, ?) = 0",
+                traineeId, ASSIGNED_EVERY);
+        // Rows written behind the service's back
+        activeTrainerIndex.invalidate();
+    }
+
+    private long percentileMicros(List<Long> nanos, int percentile) {
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000;
+    }
+}
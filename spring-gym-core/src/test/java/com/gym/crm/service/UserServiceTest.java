@@ -0,0 +1,156 @@
+package com.gym.crm.service;
+
+import com.gym.crm.dao.UserDAO;
+import com.gym.crm.dto.auth.UserCredentialsDto;
+import com.gym.crm.model.Trainer;
+import com.gym.crm.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserDAO userDAO;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void generateUsername_ShouldReturnBaseName_WhenFree() {
+        when(userDAO.findUsernamesStartingWith("john.smith")).thenReturn(List.of());
+
+        assertEquals("john.smith", userService.generateUsername("John", "Smith"));
+    }
+
+    @Test
+    void generateUsername_ShouldAppendFirstSerial_WhenOnlyBaseNameTaken() {
+        when(userDAO.findUsernamesStartingWith("john.smith")).thenReturn(List.of("john.smith"));
+
+        assertEquals("john.smith1", userService.generateUsername("John", "Smith"));
+    }
+
+    @Test
+    void generateUsername_ShouldIgnoreNamesThatOnlyShareThePrefix() {
+        when(userDAO.findUsernamesStartingWith("john.smith"))
+                .thenReturn(List.of("john.smith", "john.smith2", "john.smithson", "john.smith07", "john.smith9x"));
+
+        assertEquals("john.smith3", userService.generateUsername("John", "Smith"));
+    }
+
+    @Test
+    void generateUsername_ShouldResolveThousandthDuplicate_WithSingleQuery() {
+        List<String> taken = new ArrayList<>();
+        taken.add("john.smith");
+        for (int serial = 1; serial < 1000; serial++) {
+            taken.add("john.smith" + serial);
+        }
+        when(userDAO.findUsernamesStartingWith("john.smith")).thenReturn(taken);
+
+        assertEquals("john.smith1000", userService.generateUsername("John", "Smith"));
+        verify(userDAO, times(1)).findUsernamesStartingWith("john.smith");
+        verifyNoMoreInteractions(userDAO);
+    }
+
+    @Test
+    void generateUsernames_ShouldContinueSerials_AcrossTheBatch_WithOneLookup() {
+        when(userDAO.findUsernamesStartingWithAny(anyCollection()))
+                .thenReturn(List.of("john.smith", "john.smith2", "john.smithson", "jane.doe"));
+
+        List<String> usernames = userService.generateUsernames(
+                List.of("john.smith", "jane.doe", "john.smith", "mike.ross", "mike.ross"));
+
+        assertEquals(List.of("john.smith3", "jane.doe1", "john.smith4", "mike.ross", "mike.ross1"), usernames);
+        verify(userDAO, times(1)).findUsernamesStartingWithAny(anyCollection());
+        verifyNoMoreInteractions(userDAO);
+    }
+
+    @Test
+    void changePassword_ShouldEncodeNewPassword_WhenOldPasswordMatches() {
+        User trainer = new Trainer();
+        trainer.setUsername("john.smith");
+        trainer.setPassword("encodedOld");
+        when(userDAO.findCredentialsByUsername("john.smith"))
+                .thenReturn(Optional.of(new UserCredentialsDto("john.smith", "encodedOld", "TRAINER")));
+        when(passwordEncoder.matches("old", "encodedOld")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("encodedNew");
+        when(userDAO.findByUsername("john.smith")).thenReturn(Optional.of(trainer));
+
+        assertTrue(userService.changePassword("john.smith", "old", "new"));
+        assertEquals("encodedNew", trainer.getPassword());
+    }
+
+    @Test
+    void changePassword_ShouldHashOutsideTheTransaction() {
+        User trainer = new Trainer();
+        trainer.setPassword("encodedOld");
+        when(userDAO.findCredentialsByUsername("john.smith"))
+                .thenReturn(Optional.of(new UserCredentialsDto("john.smith", "encodedOld", "TRAINER")));
+        when(passwordEncoder.matches("old", "encodedOld")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("encodedNew");
+        when(userDAO.findByUsername("john.smith")).thenReturn(Optional.of(trainer));
+
+        userService.changePassword("john.smith", "old", "new");
+
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager);
+        inOrder.verify(passwordEncoder).matches("old", "encodedOld");
+        inOrder.verify(passwordEncoder).encode("new");
+        inOrder.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void changePassword_ShouldNotOverwrite_WhenHashChangedConcurrently() {
+        User trainer = new Trainer();
+        trainer.setPassword("encodedByOtherRequest");
+        when(userDAO.findCredentialsByUsername("john.smith"))
+                .thenReturn(Optional.of(new UserCredentialsDto("john.smith", "encodedOld", "TRAINER")));
+        when(passwordEncoder.matches("old", "encodedOld")).thenReturn(true);
+        when(passwordEncoder.encode("new")).thenReturn("encodedNew");
+        when(userDAO.findByUsername("john.smith")).thenReturn(Optional.of(trainer));
+
+        assertFalse(userService.changePassword("john.smith", "old", "new"));
+        assertEquals("encodedByOtherRequest", trainer.getPassword());
+    }
+
+    @Test
+    void changePassword_ShouldReturnFalse_WhenOldPasswordIsWrong() {
+        when(userDAO.findCredentialsByUsername("john.smith"))
+                .thenReturn(Optional.of(new UserCredentialsDto("john.smith", "encodedOld", "TRAINER")));
+        when(passwordEncoder.matches("wrong", "encodedOld")).thenReturn(false);
+
+        assertFalse(userService.changePassword("john.smith", "wrong", "new"));
+        verify(passwordEncoder, never()).encode(anyString());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void changePassword_ShouldReturnFalse_WhenUserNotFound() {
+        when(userDAO.findCredentialsByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertFalse(userService.changePassword("ghost", "old", "new"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.gym.crm.service;
+
+import com.gym.crm.client.TrainerWorkloadClient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registering the next duplicate of a name against H2: one prefix lookup however many duplicates exist. Seeds
+ * 1000 duplicates by default; more via {@code -Dbenchmark.username-duplicates=N}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UsernameAllocationStatementCountTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UsernameAllocationStatementCountTest.class);
+    private static final int DUPLICATES = Integer.getInteger("benchmark.username-duplicates", 1_000);
+    // Prefix lookup, user and trainee inserts, and a sequence call for every 50 ids
+    private static final int MAX_STATEMENTS = 4;
+
+    @MockitoBean
+    private JmsTemplate jmsTemplate;
+
+    @MockitoBean
+    private TrainerWorkloadClient trainerWorkloadClient;
+
+    @Autowired
+    private TraineeService traineeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>(DUPLICATES);
+        users.add(new Object[]{"allocation.dup"});
+        for (int serial = 1; serial < DUPLICATES; serial++) {
+            users.add(new Object[]{"allocation.dup" + serial});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (first_name, last_name, username, password, is_active, user_type) " +
+                "VALUES ('Allocation', 'Dup', ?, '{noop}secret', TRUE, 'TRAINEE')", users);
+        jdbcTemplate.update("INSERT INTO trainees (id) SELECT id FROM users WHERE username LIKE 'allocation.dup%'");
+    }
+
+    @AfterEach
+    void tearDown() {
+        traineeService.deleteTraineeProfileByUsername("allocation.dup" + DUPLICATES);
+        // The seeded rows were never loaded through Hibernate, so no cache holds them
+        jdbcTemplate.update("DELETE FROM trainees WHERE id IN (SELECT id FROM users WHERE username LIKE 'allocation.dup%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'allocation.dup%'");
+    }
+
+    @Test
+    void createTraineeProfile_ShouldResolveNextDuplicate_WithOneLookup() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        String username = traineeService.createTraineeProfile("Allocation", "Dup", LocalDate.of(1990, 1, 1), "Street 1")
+                .getUsername();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        LOGGER.info("Registered duplicate {} of a name in {} us with {} statements", DUPLICATES, elapsedMicros,
+                statistics.getPrepareStatementCount());
+        assertEquals("allocation.dup" + DUPLICATES, username);
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS,
+                "registration ran " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
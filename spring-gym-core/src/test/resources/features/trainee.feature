@@ -6,7 +6,7 @@ Feature: Trainee Management
   Background:
     Given the gym service is running
 
-  # POSITIVE SCENARIOS - Using pre-seeded users from data.sql
+  # POSITIVE SCENARIOS - Using pre-seeded users from the seed migration
 
   Scenario: Register a new trainee
     When I register a trainee with the following details: